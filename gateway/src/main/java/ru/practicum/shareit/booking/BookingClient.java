@@ -1,16 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ProxyEngineFactory;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,42 +19,54 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ProxyEngineFactory engineFactory) {
+        super(engineFactory.create(API_PREFIX));
     }
 
     public ResponseEntity<Object> saveBooking(long userId, BookingDtoIn requestDto) {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> saveBookings(long userId, List<BookingDtoIn> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
     public ResponseEntity<Object> bookingApprove(long userId, long bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<Object> bookingApproveAll(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> findBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findUserBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> findUserBookings(long userId, BookingState state, int from, int size,
+                                                   @Nullable String cursor) {
+        return get(withCursor("?state={state}&from={from}&size={size}", cursor), userId,
+                pageParameters(state, from, size, cursor));
+    }
+
+    public ResponseEntity<Object> findOwnerBookings(long userId, BookingState state, int from, int size,
+                                                    @Nullable String cursor) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", cursor), userId,
+                pageParameters(state, from, size, cursor));
+    }
+
+    private static String withCursor(String path, @Nullable String cursor) {
+        return cursor == null ? path : path + "&cursor={cursor}";
     }
 
-    public ResponseEntity<Object> findOwnerBookings(long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    private static Map<String, Object> pageParameters(BookingState state, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
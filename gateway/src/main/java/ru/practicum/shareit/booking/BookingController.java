@@ -6,13 +6,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.exception.BadParameterException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.service.Header.USER_ID;
 
@@ -23,6 +28,9 @@ import static ru.practicum.shareit.service.Header.USER_ID;
 @Validated
 public class BookingController {
 
+    // сколько бронирований или решений принимается за один запрос: все они меняются в одной транзакции
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -35,6 +43,15 @@ public class BookingController {
         return bookingClient.saveBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> saveBookings(@RequestHeader(USER_ID) long userId,
+                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                               List<@Valid BookingDtoIn> bookingDtos) {
+        log.info("В метод saveBookings передан userId {}, количество бронирований {}", userId, bookingDtos.size());
+
+        return bookingClient.saveBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> bookingApprove(@RequestHeader(USER_ID) long userId,
                                                  @PathVariable long bookingId,
@@ -45,6 +62,15 @@ public class BookingController {
         return bookingClient.bookingApprove(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> bookingApproveAll(@RequestHeader(USER_ID) long userId,
+                                                    @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                    List<@Valid BookingDecisionDto> decisions) {
+        log.info("В метод bookingApproveAll передан userId {}, количество решений {}", userId, decisions.size());
+
+        return bookingClient.bookingApproveAll(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> findBookingById(@RequestHeader(USER_ID) long userId, @PathVariable long bookingId) {
         log.info("В метод findBookingById передан userId {}, bookingId {}", userId, bookingId);
@@ -56,27 +82,39 @@ public class BookingController {
     public ResponseEntity<Object> findUserBookings(@RequestHeader(USER_ID) long userId,
                                                    @RequestParam(defaultValue = "all") String state,
                                                    @RequestParam(defaultValue = "0") @Min(0) int from,
-                                                   @RequestParam(defaultValue = "20") @Positive int size) {
+                                                   @RequestParam(defaultValue = "20") @Positive int size,
+                                                   @RequestParam(required = false) String cursor) {
         log.info("В метод findUserBookings передан userId {}, статус бронирования для поиска {}," +
-                " индекс первого элемента {},количество элементов на странице {}", userId, state, from, size);
+                " индекс первого элемента {},количество элементов на странице {}, курсор {}",
+                userId, state, from, size, cursor);
 
         BookingState enumState = BookingState.from(state)
                 .orElseThrow(() -> new BadParameterException("Unknown state: " + state));
 
-        return bookingClient.findUserBookings(userId, enumState, from, size);
+        if (cursor != null && BookingCursor.from(cursor).isEmpty()) {
+            throw new BadParameterException("Unknown cursor: " + cursor);
+        }
+
+        return bookingClient.findUserBookings(userId, enumState, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findOwnerBookings(@RequestHeader(USER_ID) long userId,
                                                     @RequestParam(defaultValue = "all") String state,
                                                     @RequestParam(defaultValue = "0") @Min(0) int from,
-                                                    @RequestParam(defaultValue = "20") @Positive int size) {
+                                                    @RequestParam(defaultValue = "20") @Positive int size,
+                                                    @RequestParam(required = false) String cursor) {
         log.info("В метод findOwnerBookings передан userId {}, статус бронирования для поиска {}, " +
-                "индекс первого элемента {}, количество элементов на странице {}", userId, state, from, size);
+                "индекс первого элемента {}, количество элементов на странице {}, курсор {}",
+                userId, state, from, size, cursor);
 
         BookingState enumState = BookingState.from(state)
                 .orElseThrow(() -> new BadParameterException("Unknown state: " + state));
 
-        return bookingClient.findOwnerBookings(userId, enumState, from, size);
+        if (cursor != null && BookingCursor.from(cursor).isEmpty()) {
+            throw new BadParameterException("Unknown cursor: " + cursor);
+        }
+
+        return bookingClient.findOwnerBookings(userId, enumState, from, size, cursor);
     }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+
+// решение владельца по одному бронированию в пакетном подтверждении
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookingDecisionDto {
+
+    @NotNull
+    private Long bookingId;
+
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// распределяет запросы клиента по экземплярам сервера: из двух случайных экземпляров выбирается тот,
+// у которого меньше запросов в работе; GET при недоступности экземпляра повторяется на другом
+public class BalancedProxyEngine implements ProxyEngine {
+
+    private final List<Member> members;
+    private final ShareItServerProperties.Balancer balancer;
+
+    public BalancedProxyEngine(List<Member> members, ShareItServerProperties.Balancer balancer) {
+        this.members = List.copyOf(members);
+        this.balancer = balancer;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              HttpEntity<?> requestEntity) {
+        return attempt(method, path, parameters, requestEntity, new HashSet<>(), 1);
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> attempt(HttpMethod method, String path,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              HttpEntity<?> requestEntity,
+                                                              Set<ServerInstance> tried, int attempt) {
+        Member member = choose(tried, System.nanoTime());
+        ServerInstance instance = member.getInstance();
+        tried.add(instance);
+        instance.onStart();
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = member.getEngine().exchange(method, path, parameters, requestEntity);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, e) -> {
+            boolean unavailable = e != null || isUnavailable(result);
+            instance.onFinish(unavailable, System.nanoTime(), balancer);
+            // повторяются только идемпотентные GET и только на экземпляре, который ещё не пробовали
+            if (unavailable && method == HttpMethod.GET && attempt < balancer.getMaxAttempts()
+                    && tried.size() < members.size()) {
+                return attempt(method, path, parameters, requestEntity, tried, attempt + 1);
+            }
+            return e != null ? CompletableFuture.<ResponseEntity<Object>>failedFuture(e)
+                    : CompletableFuture.completedFuture(result);
+        }).thenCompose(Function.identity());
+    }
+
+    private Member choose(Set<ServerInstance> tried, long now) {
+        List<Member> candidates = new ArrayList<>(members.size());
+        for (Member member : members) {
+            if (!tried.contains(member.getInstance()) && member.getInstance().isAvailable(now)) {
+                candidates.add(member);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // все экземпляры исключены - лучше попробовать, чем сразу отказать
+            for (Member member : members) {
+                if (!tried.contains(member.getInstance())) {
+                    candidates.add(member);
+                }
+            }
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Member a = candidates.get(first);
+        Member b = candidates.get(second);
+        return a.getInstance().getOutstanding() <= b.getInstance().getOutstanding() ? a : b;
+    }
+
+    // ответ не от приложения, а от недоступного экземпляра или прокси перед ним
+    private static boolean isUnavailable(ResponseEntity<Object> response) {
+        int status = response.getStatusCodeValue();
+        return status == HttpStatus.BAD_GATEWAY.value()
+                || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Member {
+
+        private final ServerInstance instance;
+        private final ProxyEngine engine;
+    }
+}
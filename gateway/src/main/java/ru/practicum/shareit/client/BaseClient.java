@@ -2,17 +2,26 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class BaseClient {
-    protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private final ProxyEngine engine;
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final ResponseCache cache;
+
+    public BaseClient(ProxyEngine engine) {
+        this(engine, new ResponseCache(0));
+    }
+
+    public BaseClient(ProxyEngine engine, ResponseCache cache) {
+        this.engine = engine;
+        this.cache = cache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,6 +36,29 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    // одновременные одинаковые GET-запросы разделяют один запрос к серверу;
+    // userId == null - для ответов, которые не зависят от пользователя
+    protected ResponseEntity<Object> getShared(String path, @Nullable Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(defaultHeaders(userId));
+        return await(coalescer.execute(requestKey(path, userId, parameters),
+                () -> engine.exchange(HttpMethod.GET, path, parameters, requestEntity)));
+    }
+
+    // то же, что getShared, но сохранённый ответ перепроверяется на сервере по ETag
+    protected ResponseEntity<Object> getCached(String path, long userId, @Nullable Map<String, Object> parameters) {
+        String key = requestKey(path, userId, parameters);
+        return await(coalescer.execute(key, () -> {
+            ResponseEntity<Object> cached = cache.get(key);
+            HttpHeaders headers = defaultHeaders(userId);
+            if (cached != null) {
+                headers.setIfNoneMatch(cached.getHeaders().getETag());
+            }
+            return engine.exchange(HttpMethod.GET, path, parameters, new HttpEntity<>(headers))
+                    .thenApply(response -> cache.revalidate(key, cached, response));
+        }));
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -75,20 +107,39 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    // ответ нужен самому шлюзу, а не клиенту: запрос ждётся в текущем потоке при любом способе отправки
+    protected ResponseEntity<Object> postAndWait(String path, long userId, MediaType contentType, String body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        return join(engine.exchange(HttpMethod.POST, path, null, new HttpEntity<>(body, headers)));
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return await(engine.exchange(method, path, parameters, requestEntity));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    // готовый ответ отдаётся сразу, незавершённый оборачивается в DeferredResponse и ждётся асинхронно
+    private static ResponseEntity<Object> await(CompletableFuture<ResponseEntity<Object>> response) {
+        if (!response.isDone()) {
+            return new DeferredResponse(response);
+        }
+        return join(response);
+    }
+
+    private static ResponseEntity<Object> join(CompletableFuture<ResponseEntity<Object>> response) {
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            throw e;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private static String requestKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        return path + '|' + (parameters != null ? new TreeMap<>(parameters) : "") + '|' + userId;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -100,18 +151,4 @@ public class BaseClient {
         }
         return headers;
     }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
-    }
 }
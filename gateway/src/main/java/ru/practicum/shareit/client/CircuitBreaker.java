@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+// после серии ошибок или медленных ответов сервера запросы отклоняются сразу,
+// через open-duration пропускается несколько пробных вызовов
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final ResilienceProperties.Breaker properties;
+    private final byte[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    public CircuitBreaker(ResilienceProperties.Breaker properties) {
+        this.properties = properties;
+        this.window = new byte[properties.getWindowSize()];
+    }
+
+    public synchronized boolean tryAcquirePermission(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < properties.getOpenDuration().toNanos()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialPermits = 0;
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits >= properties.getHalfOpenCalls()) {
+                return false;
+            }
+            trialPermits++;
+        }
+        return true;
+    }
+
+    public synchronized void onResult(boolean failed, long durationNanos, long now) {
+        boolean slow = durationNanos >= properties.getSlowCallDuration().toNanos();
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open(now);
+            } else if (++trialSuccesses >= properties.getHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // ответ на запрос, отправленный до размыкания
+            return;
+        }
+        record(failed, slow);
+        if (recorded >= properties.getMinimumCalls()
+                && (failures * 100 >= properties.getFailureRateThreshold() * recorded
+                || slowCalls * 100 >= properties.getSlowCallRateThreshold() * recorded)) {
+            open(now);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // сколько ещё цепь будет разомкнута
+    public synchronized long remainingOpenNanos(long now) {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openedAt + properties.getOpenDuration().toNanos() - now);
+    }
+
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0 : failures * 100.0 / recorded;
+    }
+
+    public synchronized double slowCallRate() {
+        return recorded == 0 ? 0 : slowCalls * 100.0 / recorded;
+    }
+
+    public synchronized int bufferedCalls() {
+        return recorded;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recorded == window.length) {
+            byte evicted = window[position];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        byte outcome = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/circuitbreakers - состояние цепей и bulkhead по клиентам
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    private final ProxyEngineFactory engineFactory;
+
+    public CircuitBreakerEndpoint(ProxyEngineFactory engineFactory) {
+        this.engineFactory = engineFactory;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> circuitBreakers() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (GuardedProxyEngine engine : engineFactory.getGuardedEngines()) {
+            CircuitBreaker breaker = engine.getBreaker();
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("state", breaker.getState());
+            state.put("failureRate", breaker.failureRate());
+            state.put("slowCallRate", breaker.slowCallRate());
+            state.put("bufferedCalls", breaker.bufferedCalls());
+            state.put("maxConcurrent", engine.getMaxConcurrent());
+            state.put("availableConcurrent", engine.getAvailableConcurrent());
+            result.put(engine.getName(), state);
+        }
+        return result;
+    }
+}
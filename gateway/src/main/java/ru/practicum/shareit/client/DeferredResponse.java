@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+// ответ сервера, который ещё не получен: контроллер возвращает его как обычный ResponseEntity,
+// а DeferredResponseHandler переводит запрос в асинхронный режим до завершения future
+@Getter
+public class DeferredResponse extends ResponseEntity<Object> {
+
+    private final CompletableFuture<ResponseEntity<Object>> response;
+
+    DeferredResponse(CompletableFuture<ResponseEntity<Object>> response) {
+        super(HttpStatus.ACCEPTED);
+        this.response = response;
+    }
+}
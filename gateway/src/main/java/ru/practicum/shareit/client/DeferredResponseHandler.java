@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.concurrent.CompletionException;
+
+public class DeferredResponseHandler implements AsyncHandlerMethodReturnValueHandler {
+
+    @Override
+    public boolean isAsyncReturnValue(@Nullable Object returnValue, MethodParameter returnType) {
+        return returnValue instanceof DeferredResponse;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        if (!(returnValue instanceof DeferredResponse)) {
+            mavContainer.setRequestHandled(true);
+            return;
+        }
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>();
+        ((DeferredResponse) returnValue).getResponse().whenComplete((response, e) -> {
+            if (e != null) {
+                // исключение уходит в ErrorHandler так же, как при блокирующей отправке
+                result.setErrorResult(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                result.setResult(response);
+            }
+        });
+        WebAsyncUtils.getAsyncManager(webRequest).startDeferredResultProcessing(result, mavContainer);
+    }
+}
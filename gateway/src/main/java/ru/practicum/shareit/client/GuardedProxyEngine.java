@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// изоляция клиента: не больше maxConcurrent запросов к серверу одновременно (bulkhead)
+// и быстрый отказ, пока CircuitBreaker разомкнут; медленный поиск не занимает соединения бронирований
+public class GuardedProxyEngine implements ProxyEngine, MeterBinder {
+
+    private final ProxyEngine engine;
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder breakerRejected = new LongAdder();
+
+    public GuardedProxyEngine(ProxyEngine engine, String name, int maxConcurrent, CircuitBreaker breaker) {
+        this.engine = engine;
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.breaker = breaker;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              HttpEntity<?> requestEntity) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejected.increment();
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Слишком много одновременных запросов к /" + name + ", повторите позже", 1));
+        }
+        long start = System.nanoTime();
+        if (!breaker.tryAcquirePermission(start)) {
+            bulkhead.release();
+            breakerRejected.increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(breaker.remainingOpenNanos(start)));
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Сервер не отвечает на запросы к /" + name + ", повторите позже", retryAfter));
+        }
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = engine.exchange(method, path, parameters, requestEntity);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((result, e) -> {
+            bulkhead.release();
+            long now = System.nanoTime();
+            // ошибки клиента (4xx) не говорят о проблемах сервера
+            breaker.onResult(e != null || result.getStatusCode().is5xxServerError(), now - start, now);
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getAvailableConcurrent() {
+        return bulkhead.availablePermits();
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.circuit-breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Состояние цепи: 0 - замкнута, 1 - разомкнута, 2 - пробные вызовы")
+                .tag("client", name)
+                .register(registry);
+        Gauge.builder("shareit.circuit-breaker.failure-rate", breaker, CircuitBreaker::failureRate)
+                .tag("client", name)
+                .baseUnit("percent")
+                .register(registry);
+        FunctionCounter.builder("shareit.circuit-breaker.rejected", breakerRejected, LongAdder::sum)
+                .tag("client", name)
+                .register(registry);
+        Gauge.builder("shareit.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Свободные места для одновременных запросов")
+                .tag("client", name)
+                .register(registry);
+        FunctionCounter.builder("shareit.bulkhead.rejected", bulkheadRejected, LongAdder::sum)
+                .tag("client", name)
+                .register(registry);
+    }
+}
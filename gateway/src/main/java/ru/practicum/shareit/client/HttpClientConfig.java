@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, ShareItServerProperties.class,
+        ResilienceProperties.class})
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareItConnectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareItHttpClient(PoolingHttpClientConnectionManager shareItConnectionManager,
+                                                 HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getLeaseTimeout().toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(shareItConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient shareItHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItHttpClient);
+    }
+
+    @Bean
+    public HttpPoolMetrics httpPoolMetrics(PoolingHttpClientConnectionManager shareItConnectionManager) {
+        return new HttpPoolMetrics(shareItConnectionManager);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "shareit-server.engine", havingValue = "reactive")
+    public ConnectionProvider shareItConnectionProvider(HttpClientProperties properties) {
+        // те же лимиты, что и у пула Apache HttpClient; метрики reactor.netty.connection.provider.*
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireTimeout(properties.getLeaseTimeout())
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.engine", havingValue = "reactive")
+    public WebClient shareItWebClient(WebClient.Builder builder, ConnectionProvider shareItConnectionProvider,
+                                      HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
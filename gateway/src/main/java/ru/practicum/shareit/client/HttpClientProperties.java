@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+
+    // общее количество соединений в пуле
+    private int maxTotal = 200;
+
+    // количество соединений к одному хосту
+    private int maxPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    // сколько ждать свободного соединения из пула
+    private Duration leaseTimeout = Duration.ofSeconds(1);
+
+    // простаивающие дольше этого соединения закрываются фоновым потоком
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    // соединение проверяется перед выдачей, если не использовалось дольше этого
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+public class HttpPoolMetrics implements MeterBinder {
+
+    private static final String PREFIX = "shareit.http.pool.";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public HttpPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PREFIX + "leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Соединения, выданные запросам")
+                .register(registry);
+        Gauge.builder(PREFIX + "available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Свободные соединения в пуле")
+                .register(registry);
+        Gauge.builder(PREFIX + "pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Запросы, ожидающие соединения")
+                .register(registry);
+        Gauge.builder(PREFIX + "max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .description("Максимальный размер пула")
+                .register(registry);
+    }
+}
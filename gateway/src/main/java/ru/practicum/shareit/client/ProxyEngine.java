@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// способ отправки запроса на сервер: ошибки сервера (4xx, 5xx) возвращаются ответом, а не исключением
+public interface ProxyEngine {
+
+    CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                       @Nullable Map<String, Object> parameters,
+                                                       HttpEntity<?> requestEntity);
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.limit.LoadShedder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+@Component
+public class ProxyEngineFactory {
+
+    private final ShareItServerProperties properties;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ClientHttpRequestFactory shareItRequestFactory;
+    private final ObjectProvider<WebClient> shareItWebClient;
+    private final LoadShedder loadShedder;
+    private final ResilienceProperties resilience;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final List<GuardedProxyEngine> guardedEngines = new CopyOnWriteArrayList<>();
+    private final List<ServerInstance> instances;
+
+    public ProxyEngineFactory(ShareItServerProperties properties, RestTemplateBuilder restTemplateBuilder,
+                              ClientHttpRequestFactory shareItRequestFactory,
+                              ObjectProvider<WebClient> shareItWebClient, LoadShedder loadShedder,
+                              ResilienceProperties resilience, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.shareItRequestFactory = shareItRequestFactory;
+        this.shareItWebClient = shareItWebClient;
+        this.loadShedder = loadShedder;
+        this.resilience = resilience;
+        this.meterRegistry = meterRegistry;
+        // экземпляры общие для всех клиентов, чтобы число запросов в работе учитывалось целиком
+        this.instances = properties.getUrl().stream()
+                .map(String::trim)
+                .map(ServerInstance::new)
+                .collect(Collectors.toList());
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("Не задан адрес сервера shareit-server.url");
+        }
+        instances.forEach(instance -> meterRegistry.ifAvailable(instance::bindTo));
+    }
+
+    public ProxyEngine create(String apiPrefix) {
+        // отклонённые bulkhead или CircuitBreaker запросы не попадают в замер задержки сервера
+        return guarded(apiPrefix.substring(1), measured(balanced(apiPrefix)));
+    }
+
+    public List<GuardedProxyEngine> getGuardedEngines() {
+        return List.copyOf(guardedEngines);
+    }
+
+    private ProxyEngine guarded(String name, ProxyEngine engine) {
+        GuardedProxyEngine guarded = new GuardedProxyEngine(engine, name, resilience.maxConcurrentFor(name),
+                new CircuitBreaker(resilience.getBreaker()));
+        guardedEngines.add(guarded);
+        meterRegistry.ifAvailable(guarded::bindTo);
+        return guarded;
+    }
+
+    // задержка каждого запроса к серверу передаётся LoadShedder
+    private ProxyEngine measured(ProxyEngine engine) {
+        return (method, path, parameters, requestEntity) -> {
+            long start = System.nanoTime();
+            return engine.exchange(method, path, parameters, requestEntity)
+                    .whenComplete((response, e) -> {
+                        long now = System.nanoTime();
+                        loadShedder.record(now - start, now);
+                    });
+        };
+    }
+
+    private ProxyEngine balanced(String apiPrefix) {
+        List<BalancedProxyEngine.Member> members = instances.stream()
+                .map(instance -> new BalancedProxyEngine.Member(instance, createEngine(instance.getUrl() + apiPrefix)))
+                .collect(Collectors.toList());
+        return new BalancedProxyEngine(members, properties.getBalancer());
+    }
+
+    private ProxyEngine createEngine(String baseUrl) {
+        if (properties.getEngine() == ShareItServerProperties.Engine.REACTIVE) {
+            WebClient webClient = shareItWebClient.getObject().mutate()
+                    .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                    .build();
+            return new WebClientProxyEngine(webClient, properties.isPassthrough());
+        }
+        return new RestTemplateProxyEngine(
+                restTemplateBuilder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                properties.isPassthrough()
+        );
+    }
+
+    public ResponseCache createCache() {
+        return new ResponseCache(properties.getCacheSize());
+    }
+}
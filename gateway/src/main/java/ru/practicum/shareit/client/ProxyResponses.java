@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+import static ru.practicum.shareit.service.Header.NEXT_CURSOR;
+
+@NoArgsConstructor(access = PRIVATE)
+final class ProxyResponses {
+
+    // заголовки ответа сервера, которые шлюз отдаёт клиенту как есть
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            NEXT_CURSOR);
+
+    // тело ответа сервера не разбирается, а передаётся клиенту байтами вместе с нужными заголовками
+    static ResponseEntity<Object> passThrough(int status, @Nullable HttpHeaders serverHeaders, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                .headers(passthroughHeaders(serverHeaders));
+        if (body != null) {
+            return responseBuilder.body(body);
+        }
+        return responseBuilder.build();
+    }
+
+    static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    private static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders == null) {
+            return headers;
+        }
+        for (String name : PASSTHROUGH_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// одинаковые запросы, пришедшие пока первый ещё выполняется, получают его ответ, а не идут на сервер повторно
+public class RequestCoalescer {
+
+    private final Map<String, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<ResponseEntity<Object>> execute(String key,
+                                                             Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        CompletableFuture<ResponseEntity<Object>> shared = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, e) -> {
+            // ключ убирается до завершения, чтобы запросы после ответа ушли на сервер за свежими данными
+            inFlight.remove(key, shared);
+            if (e != null) {
+                shared.completeExceptionally(e);
+            } else {
+                shared.complete(result);
+            }
+        });
+        return shared;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+
+    // одновременных запросов к серверу от одного клиента (items, bookings, users, requests)
+    private int maxConcurrent = 50;
+
+    // отдельные лимиты по имени клиента, например max-concurrent-per-client.items=40
+    private Map<String, Integer> maxConcurrentPerClient = new HashMap<>();
+
+    private Breaker breaker = new Breaker();
+
+    public int maxConcurrentFor(String client) {
+        return maxConcurrentPerClient.getOrDefault(client, maxConcurrent);
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+
+        // процент ошибок (5xx, сбои соединения) среди последних вызовов, при котором цепь размыкается
+        private int failureRateThreshold = 50;
+
+        // вызов дольше этого считается медленным
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        // процент медленных вызовов, при котором цепь размыкается
+        private int slowCallRateThreshold = 80;
+
+        // сколько последних вызовов учитывается
+        private int windowSize = 20;
+
+        // меньше вызовов в окне - цепь не размыкается
+        private int minimumCalls = 10;
+
+        // сколько цепь остаётся разомкнутой до пробных вызовов
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        // пробные вызовы в полуоткрытом состоянии; все успешные - цепь замыкается
+        private int halfOpenCalls = 3;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// последние ответы сервера с ETag; при повторном запросе сервер проверяет ETag и отвечает 304 без тела
+public class ResponseCache {
+
+    private final Map<String, ResponseEntity<Object>> entries;
+
+    public ResponseCache(int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LruMap(maxEntries));
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(String key) {
+        return entries.get(key);
+    }
+
+    // 304 - отдаётся сохранённый ответ, новый ответ с ETag запоминается, остальные ответы сбрасывают запись
+    public ResponseEntity<Object> revalidate(String key, @Nullable ResponseEntity<Object> cached,
+                                             ResponseEntity<Object> response) {
+        if (response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            return cached;
+        }
+        if (response.getStatusCode().is2xxSuccessful() && response.getHeaders().getETag() != null) {
+            entries.put(key, response);
+        } else {
+            entries.remove(key);
+        }
+        return response;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static class LruMap extends LinkedHashMap<String, ResponseEntity<Object>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ResponseEntity<Object>> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static ru.practicum.shareit.client.ProxyResponses.passThrough;
+import static ru.practicum.shareit.client.ProxyResponses.prepareGatewayResponse;
+
+// блокирующая отправка: поток запроса ждёт ответа сервера, результат возвращается уже готовым
+public class RestTemplateProxyEngine implements ProxyEngine {
+
+    private final RestTemplate rest;
+    private final boolean passthrough;
+
+    public RestTemplateProxyEngine(RestTemplate rest, boolean passthrough) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              HttpEntity<?> requestEntity) {
+        try {
+            return CompletableFuture.completedFuture(passthrough
+                    ? sendAndPassThrough(method, path, parameters, requestEntity)
+                    : send(method, path, parameters, requestEntity));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                        HttpEntity<?> requestEntity) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private ResponseEntity<Object> sendAndPassThrough(HttpMethod method, String path,
+                                                      @Nullable Map<String, Object> parameters,
+                                                      HttpEntity<?> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return passThrough(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        return passThrough(shareitServerResponse.getStatusCodeValue(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+}
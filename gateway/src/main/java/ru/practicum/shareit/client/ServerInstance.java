@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// один экземпляр сервера: число запросов в работе и пассивная проверка здоровья -
+// после failures-to-eject сбоев подряд экземпляр исключается из балансировки на eject-duration
+public class ServerInstance implements MeterBinder {
+
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong ejectedUntil = new AtomicLong();
+    private volatile boolean ejected;
+
+    public ServerInstance(String url) {
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isAvailable(long now) {
+        return !ejected || now - ejectedUntil.get() >= 0;
+    }
+
+    public void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    public void onFinish(boolean failed, long now, ShareItServerProperties.Balancer balancer) {
+        outstanding.decrementAndGet();
+        if (!failed) {
+            consecutiveFailures.set(0);
+            ejected = false;
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= balancer.getFailuresToEject()) {
+            consecutiveFailures.set(0);
+            ejectedUntil.set(now + balancer.getEjectDuration().toNanos());
+            ejected = true;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.server.outstanding", outstanding, AtomicInteger::get)
+                .description("Запросы к экземпляру сервера, ожидающие ответа")
+                .tag("instance", url)
+                .register(registry);
+        Gauge.builder("shareit.server.available", this, instance -> instance.isAvailable(System.nanoTime()) ? 1 : 0)
+                .description("1 - экземпляр участвует в балансировке, 0 - исключён после сбоев")
+                .tag("instance", url)
+                .register(registry);
+    }
+}
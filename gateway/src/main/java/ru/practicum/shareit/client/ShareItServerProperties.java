@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server")
+public class ShareItServerProperties {
+
+    // адреса экземпляров сервера через запятую
+    private List<String> url = new ArrayList<>();
+
+    // передавать тело ответа сервера байтами, не разбирая JSON
+    private boolean passthrough = true;
+
+    private Engine engine = Engine.BLOCKING;
+
+    // сколько ответов с ETag хранит каждый клиент для условных запросов к серверу
+    private int cacheSize = 1000;
+
+    private Balancer balancer = new Balancer();
+
+    public enum Engine {
+        // RestTemplate на общем пуле Apache HttpClient, поток Tomcat ждёт ответа сервера
+        BLOCKING,
+        // WebClient на reactor-netty, поток Tomcat освобождается до прихода ответа
+        REACTIVE
+    }
+
+    @Getter
+    @Setter
+    public static class Balancer {
+
+        // попыток GET на разных экземплярах, если экземпляр недоступен
+        private int maxAttempts = 2;
+
+        // сбоев подряд, после которых экземпляр исключается из балансировки
+        private int failuresToEject = 3;
+
+        private Duration ejectDuration = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static ru.practicum.shareit.client.ProxyResponses.passThrough;
+
+// неблокирующая отправка: поток запроса освобождается сразу, ответ приходит в потоке reactor-netty
+public class WebClientProxyEngine implements ProxyEngine {
+
+    private final WebClient webClient;
+    private final boolean passthrough;
+
+    public WebClientProxyEngine(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              HttpEntity<?> requestEntity) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestEntity.getHeaders()));
+        Object body = requestEntity.getBody();
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(this::toGatewayResponse).toFuture();
+    }
+
+    private Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        if (passthrough) {
+            return response.toEntity(byte[].class)
+                    .map(entity -> passThrough(entity.getStatusCodeValue(), entity.getHeaders(), entity.getBody()));
+        }
+        if (response.statusCode().isError()) {
+            return response.toEntity(byte[].class)
+                    .map(entity -> passThrough(entity.getStatusCodeValue(), null, entity.getBody()));
+        }
+        return response.toEntity(Object.class).map(ProxyResponses::prepareGatewayResponse);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    // через сколько секунд можно повторить запрос
+    private final long retryAfter;
+
+    public ServiceUnavailableException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
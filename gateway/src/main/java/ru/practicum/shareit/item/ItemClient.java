@@ -1,16 +1,18 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ProxyEngineFactory;
 import ru.practicum.shareit.item.dto.CommentDtoIn;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.CommentCursor;
+import ru.practicum.shareit.item.model.SearchMode;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,25 +21,28 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ProxyEngineFactory engineFactory) {
+        super(engineFactory.create(API_PREFIX), engineFactory.createCache());
     }
 
     public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> createItems(long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public ResponseEntity<Object> importItems(long userId, String ndjson) {
+        return postAndWait("/import", userId, MediaType.APPLICATION_NDJSON, ndjson);
+    }
+
     public ResponseEntity<Object> updateItem(long userId, ItemDto itemDto, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
     public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+        return getCached("/" + itemId, userId, null);
     }
 
     public ResponseEntity<Object> getUserItems(long userId, int from, int size) {
@@ -48,19 +53,50 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(long userId, String text, int from, int size) {
+    public ResponseEntity<Object> search(long userId, String text, SearchMode mode, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "mode", mode.name(),
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        // результат поиска не зависит от пользователя, поэтому запросы разных пользователей объединяются
+        return getShared("/search?text={text}&mode={mode}&from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        // подсказки запрашиваются на каждое нажатие клавиши, одинаковые запросы объединяются
+        return getShared("/suggest?prefix={prefix}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> saveComment(long userId, long itemId, CommentDtoIn comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
 
+    public ResponseEntity<Object> getComments(long itemId, CommentCursor after, int limit) {
+        // отзывы не зависят от пользователя, поэтому запросы разных пользователей объединяются
+        if (after == null) {
+            return getShared("/" + itemId + "/comments?limit={limit}", null, Map.of("limit", limit));
+        }
+        Map<String, Object> parameters = Map.of(
+                "after", after.toString(),
+                "limit", limit
+        );
+        return getShared("/" + itemId + "/comments?after={after}&limit={limit}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return getShared("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
     public ResponseEntity<Object> deleteItem(long itemId) {
         return delete("/" + itemId);
     }
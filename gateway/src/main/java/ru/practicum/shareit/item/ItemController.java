@@ -2,20 +2,39 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.BadParameterException;
 import ru.practicum.shareit.item.dto.CommentDtoIn;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.CommentCursor;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.service.Create;
 import ru.practicum.shareit.service.Update;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
 import static ru.practicum.shareit.service.Header.USER_ID;
 
 @Slf4j
@@ -25,8 +44,13 @@ import static ru.practicum.shareit.service.Header.USER_ID;
 @RequestMapping("/items")
 public class ItemController {
 
+    // сколько вещей создаётся за один запрос: все они сохраняются в одной транзакции
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final ItemClient itemClient;
 
+    private final ItemImporter itemImporter;
+
     @GetMapping
     public ResponseEntity<Object> getUserItems(@RequestHeader(USER_ID) long userId,
                                                @RequestParam(defaultValue = "0") @Min(0) int from,
@@ -45,14 +69,30 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestHeader(USER_ID) long userId,
                                          @RequestParam String text,
+                                         @RequestParam(defaultValue = "fulltext") String mode,
                                          @RequestParam(defaultValue = "0") @Min(0) int from,
                                          @RequestParam(defaultValue = "20") @Positive int size) {
-        log.info("В метод search передан userId {}, text: '{}', индекс первого элемента {}, количество элементов на " +
-                "странице {}", userId, text, from, size);
+        log.info("В метод search передан userId {}, text: '{}', режим поиска {}, индекс первого элемента {}, " +
+                "количество элементов на странице {}", userId, text, mode, from, size);
+
+        SearchMode searchMode = SearchMode.from(mode)
+                .orElseThrow(() -> new BadParameterException("Unknown search mode: " + mode));
+
         if (text.isBlank()) {
             return new ResponseEntity<>(List.of(), HttpStatus.OK);
         }
-        return itemClient.search(userId, text, from, size);
+        return itemClient.search(userId, text, searchMode, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestHeader(USER_ID) long userId,
+                                          @RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") @Positive @Max(50) int size) {
+        log.info("В метод suggest передан userId {}, prefix: '{}', количество подсказок {}", userId, prefix, size);
+        if (prefix.isBlank()) {
+            return new ResponseEntity<>(List.of(), HttpStatus.OK);
+        }
+        return itemClient.suggest(prefix, size);
     }
 
     @PostMapping()
@@ -64,6 +104,28 @@ public class ItemController {
         return itemClient.createItem(userId, itemDto);
     }
 
+    // группа Create нужна для проверки полей каждой вещи, Default — для ограничений самого списка
+    @PostMapping("/batch")
+    @Validated({Default.class, Create.class})
+    public ResponseEntity<Object> createAll(@RequestHeader(USER_ID) long userId,
+                                            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                            List<@Valid ItemDto> itemDtos) {
+        log.info("В метод createAll передан userId {}, количество вещей {}", userId, itemDtos.size());
+        return itemClient.createItems(userId, itemDtos);
+    }
+
+    // тело читается построчно по мере поступления, на сервер уходят только прошедшие проверку вещи
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemImporter.CSV_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader(USER_ID) long userId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) throws IOException {
+        log.info("В метод importItems передан userId {}, формат {}", userId, contentType);
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        try (Reader input = new InputStreamReader(body, charset)) {
+            return itemImporter.importItems(userId, ItemImporter.CSV.isCompatibleWith(contentType), input);
+        }
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> saveComment(@RequestHeader(USER_ID) long userId,
                                               @PathVariable long itemId,
@@ -73,6 +135,32 @@ public class ItemController {
         return itemClient.saveComment(userId, itemId, comment);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader(USER_ID) long userId,
+                                              @PathVariable long itemId,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int limit) {
+        log.info("В метод getComments передан userId {}, itemId {}, после отзыва '{}', количество отзывов {}",
+                userId, itemId, after, limit);
+
+        CommentCursor cursor = after == null ? null : CommentCursor.from(after)
+                .orElseThrow(() -> new BadParameterException("Unknown comments cursor: " + after));
+
+        return itemClient.getComments(itemId, cursor, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader(USER_ID) long userId,
+                                                  @PathVariable long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+        log.info("В метод getAvailability передан userId {}, itemId {}, период с {} по {}", userId, itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadParameterException("Начало периода " + from + " должно быть раньше конца " + to);
+        }
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> update(@RequestHeader(USER_ID) long userId,
                                          @PathVariable long id,
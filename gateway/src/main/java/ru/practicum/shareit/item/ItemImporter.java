@@ -0,0 +1,288 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadParameterException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.service.Create;
+
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// импорт вещей из NDJSON или CSV: строки читаются по одной, проверяются по тем же правилам, что POST /items,
+// и уходят на сервер пакетами по CHUNK_SIZE строк; в памяти только текущая строка и пакет,
+// ошибки отчёта сервера переводятся в номера строк входных данных
+@Component
+@RequiredArgsConstructor
+public class ItemImporter {
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static final MediaType CSV = MediaType.parseMediaType(CSV_VALUE);
+
+    // строк в одном запросе к серверу
+    static final int CHUNK_SIZE = 500;
+
+    // вещь из строки длиннее всё равно не пройдёт проверку, поэтому остаток строки не читается в память
+    static final int MAX_LINE_LENGTH = 4096;
+
+    // сколько ошибок попадает в отчёт, остальные только считаются
+    static final int MAX_ERRORS = 1000;
+
+    private static final List<String> CSV_REQUIRED = List.of("name", "description", "available");
+
+    private final ItemClient itemClient;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+
+    public ResponseEntity<Object> importItems(long userId, boolean csv, Reader input) throws IOException {
+        return new Import(userId).run(new LineReader(input), csv);
+    }
+
+    // один импорт: текущий пакет и отчёт
+    private class Import {
+
+        private final long userId;
+        private final ItemImportReportDto report = new ItemImportReportDto(0, 0, new ArrayList<>());
+        private final StringBuilder chunk = new StringBuilder();
+        private final List<Long> chunkLines = new ArrayList<>(CHUNK_SIZE);
+        private boolean sent;
+
+        Import(long userId) {
+            this.userId = userId;
+        }
+
+        ResponseEntity<Object> run(LineReader lines, boolean csv) throws IOException {
+            Map<String, Integer> columns = csv ? readCsvHeader(lines) : null;
+            while (lines.next()) {
+                if (lines.tooLong) {
+                    reject(lines.number, "Строка длиннее " + MAX_LINE_LENGTH + " символов");
+                    continue;
+                }
+                String line = lines.line.toString();
+                if (line.isBlank()) {
+                    continue;
+                }
+                ItemDto item;
+                try {
+                    item = csv ? fromCsv(line, columns) : fromJson(line);
+                } catch (JsonProcessingException e) {
+                    reject(lines.number, "Некорректный JSON: " + e.getOriginalMessage());
+                    continue;
+                } catch (BadParameterException e) {
+                    reject(lines.number, e.getMessage());
+                    continue;
+                }
+                String error = validator.validate(item, Create.class).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                if (!error.isEmpty()) {
+                    reject(lines.number, error);
+                    continue;
+                }
+                item.setId(null);
+                chunk.append(mapper.writeValueAsString(item)).append('\n');
+                chunkLines.add(lines.number);
+                if (chunkLines.size() == CHUNK_SIZE) {
+                    ResponseEntity<Object> failed = send();
+                    if (failed != null) {
+                        return failed;
+                    }
+                }
+            }
+            ResponseEntity<Object> failed = send();
+            return failed != null ? failed : ResponseEntity.ok(report);
+        }
+
+        // ошибка первого пакета, относящаяся ко всему запросу (например, нет пользователя), возвращается
+        // клиенту как есть; отказ сервера (5xx, 429, разомкнутый предохранитель) и любая ошибка следующих
+        // пакетов попадают в отчёт строками пакета, чтобы не потерять итог по остальным строкам
+        private ResponseEntity<Object> send() throws IOException {
+            if (chunkLines.isEmpty()) {
+                return null;
+            }
+            ResponseEntity<Object> response;
+            try {
+                response = itemClient.importItems(userId, chunk.toString());
+            } catch (ServiceUnavailableException e) {
+                response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            HttpStatus status = response.getStatusCode();
+            if (!status.is2xxSuccessful()) {
+                if (!sent && status.is4xxClientError() && status != HttpStatus.TOO_MANY_REQUESTS) {
+                    return response;
+                }
+                chunkLines.forEach(line -> reject(line, "Сервер не принял строку: " + status));
+            } else {
+                ItemImportReportDto chunkReport = readReport(response.getBody());
+                report.setImported(report.getImported() + chunkReport.getImported());
+                report.setFailed(report.getFailed() + chunkReport.getFailed());
+                for (ItemImportErrorDto error : chunkReport.getErrors()) {
+                    addError(chunkLines.get((int) error.getLine() - 1), error.getError());
+                }
+            }
+            sent = true;
+            chunk.setLength(0);
+            chunkLines.clear();
+            return null;
+        }
+
+        private void reject(long line, String error) {
+            report.setFailed(report.getFailed() + 1);
+            addError(line, error);
+        }
+
+        private void addError(long line, String error) {
+            if (report.getErrors().size() < MAX_ERRORS) {
+                report.getErrors().add(new ItemImportErrorDto(line, error));
+            }
+        }
+    }
+
+    // readValue вернул бы null для строки «null»; массивы, строки и числа тоже не вещи
+    private ItemDto fromJson(String line) throws JsonProcessingException {
+        JsonNode node = mapper.readTree(line);
+        if (!node.isObject()) {
+            throw new BadParameterException("Ожидался JSON-объект");
+        }
+        return mapper.treeToValue(node, ItemDto.class);
+    }
+
+    // тело ответа разобрано в объект или, если шлюз передаёт ответы как есть, осталось байтами
+    private ItemImportReportDto readReport(Object body) throws IOException {
+        return body instanceof byte[]
+                ? mapper.readValue((byte[]) body, ItemImportReportDto.class)
+                : mapper.convertValue(body, ItemImportReportDto.class);
+    }
+
+    // первая строка CSV — названия столбцов в любом порядке и регистре
+    private static Map<String, Integer> readCsvHeader(LineReader lines) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        if (!lines.next()) {
+            return columns;
+        }
+        List<String> names = splitCsv(lines.line.toString().replace("\uFEFF", ""));
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        for (String name : CSV_REQUIRED) {
+            if (!columns.containsKey(name)) {
+                throw new BadParameterException("В заголовке CSV нет столбца " + name);
+            }
+        }
+        return columns;
+    }
+
+    private static ItemDto fromCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != columns.size()) {
+            throw new BadParameterException("Ожидалось полей: " + columns.size() + ", получено: " + fields.size());
+        }
+        ItemDto item = new ItemDto();
+        item.setName(fields.get(columns.get("name")));
+        item.setDescription(fields.get(columns.get("description")));
+        String available = fields.get(columns.get("available")).strip();
+        if (available.equalsIgnoreCase("true") || available.equalsIgnoreCase("false")) {
+            item.setAvailable(Boolean.parseBoolean(available));
+        } else if (!available.isEmpty()) {
+            throw new BadParameterException("available: ожидается true или false");
+        }
+        Integer requestColumn = columns.get("requestid");
+        String requestId = requestColumn == null ? "" : fields.get(requestColumn).strip();
+        if (!requestId.isEmpty()) {
+            try {
+                item.setRequestId(Long.parseLong(requestId));
+            } catch (NumberFormatException e) {
+                throw new BadParameterException("requestId: ожидается число");
+            }
+        }
+        return item;
+    }
+
+    // поля через запятую; поле в кавычках может содержать запятые и удвоенные кавычки,
+    // перевод строки внутри поля не поддерживается: каждая запись занимает одну строку
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BadParameterException("Незакрытые кавычки в строке CSV");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // строки по одной; от слишком длинной строки в памяти остаются первые MAX_LINE_LENGTH символов
+    private static class LineReader {
+
+        private final Reader input;
+        private final StringBuilder line = new StringBuilder();
+        private long number;
+        private boolean tooLong;
+
+        LineReader(Reader input) {
+            this.input = new BufferedReader(input);
+        }
+
+        boolean next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = input.read();
+            if (c == -1) {
+                return false;
+            }
+            number++;
+            while (c != -1 && c != '\n') {
+                if (line.length() < MAX_LINE_LENGTH) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+                c = input.read();
+            }
+            if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// итог импорта: сколько вещей создано и сколько строк отклонено; список errors ограничен по длине,
+// failed считает все отклонённые строки
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ItemImportReportDto {
+
+    private int imported;
+    private int failed;
+    private List<ItemImportErrorDto> errors;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.model;
+
+import java.util.Optional;
+
+public enum SearchMode {
+    // Полнотекстовый поиск по словам с учётом морфологии
+    FULLTEXT,
+    // Поиск по триграммам: фрагменты слов, артикулы, опечатки
+    TRIGRAM;
+
+    public static Optional<SearchMode> from(String stringMode) {
+        for (SearchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(stringMode)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// отбрасывает часть запросов, пока скользящее среднее задержки сервера выше целевой:
+// чем сильнее превышение, тем больше доля отброшенных
+public class LoadShedder implements MeterBinder {
+
+    private final RateLimitProperties.Shedding properties;
+    private final AtomicLong averageBits = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong lastSample = new AtomicLong();
+    private final LongAdder shed = new LongAdder();
+
+    public LoadShedder(RateLimitProperties.Shedding properties) {
+        this.properties = properties;
+    }
+
+    public void record(long latencyNanos, long now) {
+        lastSample.set(now);
+        while (true) {
+            long current = averageBits.get();
+            double average = Double.longBitsToDouble(current);
+            double next = average == 0 ? latencyNanos
+                    : average + properties.getSmoothing() * (latencyNanos - average);
+            if (averageBits.compareAndSet(current, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public boolean shouldShed(long now) {
+        double ratio = shedRatio(now);
+        if (ratio > 0 && ThreadLocalRandom.current().nextDouble() < ratio) {
+            shed.increment();
+            return true;
+        }
+        return false;
+    }
+
+    double shedRatio(long now) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        double target = properties.getTargetLatency().toNanos();
+        double ratio = (averageLatency(now) - target) / target;
+        return Math.max(0, Math.min(ratio, properties.getMaxShedRatio()));
+    }
+
+    // после простоя старая оценка не действует, иначе первые запросы после всплеска отбрасывались бы зря
+    double averageLatency(long now) {
+        if (now - lastSample.get() > properties.getIdleReset().toNanos()) {
+            return 0;
+        }
+        return Double.longBitsToDouble(averageBits.get());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.gateway.downstream.latency", this,
+                        shedder -> shedder.averageLatency(System.nanoTime()) / TimeUnit.MILLISECONDS.toNanos(1))
+                .description("Скользящее среднее задержки ответа сервера")
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("shareit.gateway.load-shedding.shed", shed, LongAdder::sum)
+                .description("Запросы, отклонённые с 503 из-за задержки сервера")
+                .register(registry);
+    }
+}
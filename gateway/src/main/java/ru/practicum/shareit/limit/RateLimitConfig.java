@@ -0,0 +1,33 @@
+package ru.practicum.shareit.limit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+
+    public RateLimitConfig(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(properties.getMaxBuckets(), properties.maxRefillTime());
+    }
+
+    @Bean
+    public LoadShedder loadShedder() {
+        return new LoadShedder(properties.getShedding());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(properties, rateLimiter(), loadShedder()));
+    }
+}
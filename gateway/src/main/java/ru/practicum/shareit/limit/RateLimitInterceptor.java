@@ -0,0 +1,69 @@
+package ru.practicum.shareit.limit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.service.Header.USER_ID;
+
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+
+    public RateLimitInterceptor(RateLimitProperties properties, RateLimiter rateLimiter, LoadShedder loadShedder) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // повторный проход асинхронного запроса (DeferredResponse) уже был учтён
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (loadShedder.shouldShed(now)) {
+            throw new ServiceUnavailableException("Сервер перегружен, повторите запрос позже", 1);
+        }
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        String method = request.getMethod();
+        String path = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (path == null) {
+            path = request.getRequestURI();
+        }
+        String key = caller(request) + ' ' + method + ' ' + path;
+        long wait = rateLimiter.tryAcquire(key, limitFor(method, path), now);
+        if (wait > 0) {
+            throw new TooManyRequestsException("Превышен лимит запросов для " + method + " " + path,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        return true;
+    }
+
+    private RateLimitProperties.Limit limitFor(String method, String path) {
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (path.equals(route.getPath())
+                    && (route.getMethod() == null || route.getMethod().equalsIgnoreCase(method))) {
+                return route;
+            }
+        }
+        return properties.getDefaultLimit();
+    }
+
+    // запросы без X-Sharer-User-Id (например, /users) ограничиваются по адресу клиента
+    private static String caller(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID);
+        return userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.limit;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // лимит для маршрутов, не перечисленных в routes
+    private Limit defaultLimit = new Limit(10, 20);
+
+    private List<Route> routes = new ArrayList<>();
+
+    // при превышении из памяти вытесняются давно не использованные корзины
+    private int maxBuckets = 100_000;
+
+    private Shedding shedding = new Shedding();
+
+    // корзина, к которой не обращались дольше этого, полна при любом лимите, и её можно забыть
+    public Duration maxRefillTime() {
+        Duration result = defaultLimit.refillTime();
+        for (Route route : routes) {
+            if (route.refillTime().compareTo(result) > 0) {
+                result = route.refillTime();
+            }
+        }
+        return result;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Limit {
+
+        // скорость пополнения корзины, запросов в секунду
+        private double perSecond;
+
+        // сколько запросов можно сделать подряд после простоя
+        private int burst;
+
+        public Limit(double perSecond, int burst) {
+            this.perSecond = perSecond;
+            this.burst = burst;
+        }
+
+        // за сколько пустая корзина наполняется до burst
+        public Duration refillTime() {
+            return Duration.ofNanos((long) (1_000_000_000L / perSecond) * Math.max(burst, 1));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Route extends Limit {
+
+        // пустой метод - любой
+        private String method;
+
+        // шаблон пути как в @GetMapping контроллера, например /items/{itemId}
+        private String path;
+    }
+
+    @Getter
+    @Setter
+    public static class Shedding {
+
+        private boolean enabled = true;
+
+        // задержка ответа сервера, выше которой шлюз начинает отбрасывать часть запросов
+        private Duration targetLatency = Duration.ofMillis(500);
+
+        // доля отбрасываемых запросов не больше этой, чтобы оценка задержки продолжала обновляться
+        private double maxShedRatio = 0.9;
+
+        // вес нового замера в скользящем среднем
+        private double smoothing = 0.2;
+
+        // оценка задержки сбрасывается, если замеров не было дольше этого
+        private Duration idleReset = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// корзины по ключу "пользователь + маршрут"; Caffeine хранит их в ConcurrentHashMap, поэтому разные
+// пользователи не конкурируют за одну блокировку. Корзина, к которой не обращались дольше времени наполнения,
+// уже полна и ничем не отличается от новой, поэтому удаляется; сверх maxBuckets вытесняются редко используемые.
+// Обе очистки идут понемногу при обращениях, без обхода всех корзин на каждом запросе
+public class RateLimiter implements MeterBinder {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(int maxBuckets, Duration idleTimeout) {
+        this(maxBuckets, idleTimeout, Ticker.systemTicker());
+    }
+
+    RateLimiter(int maxBuckets, Duration idleTimeout, Ticker ticker) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                .build();
+    }
+
+    // 0 - запрос разрешён, иначе сколько наносекунд ждать
+    public long tryAcquire(String key, RateLimitProperties.Limit limit, long now) {
+        long wait = buckets.get(key, k -> new TokenBucket(limit.getPerSecond(), limit.getBurst(), now))
+                .tryAcquire(now);
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.gateway.rate-limit.rejected", rejected, LongAdder::sum)
+                .description("Запросы, отклонённые с 429")
+                .register(registry);
+        Gauge.builder("shareit.gateway.rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Корзины токенов в памяти")
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// корзина токенов без блокировок: хранится только момент, к которому корзина снова станет полной
+// (алгоритм GCRA), и он сдвигается через compareAndSet
+public class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double perSecond, int burst, long now) {
+        this.interval = (long) (1_000_000_000L / perSecond);
+        this.tolerance = interval * Math.max(burst, 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 0 - токен выдан, иначе через сколько наносекунд появится следующий токен
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - tolerance;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
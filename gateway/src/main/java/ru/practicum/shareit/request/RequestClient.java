@@ -1,13 +1,10 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ProxyEngineFactory;
 import ru.practicum.shareit.request.dto.RequestDtoIn;
 
 import java.util.Map;
@@ -18,13 +15,8 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(ProxyEngineFactory engineFactory) {
+        super(engineFactory.create(API_PREFIX), engineFactory.createCache());
     }
 
     public ResponseEntity<Object> createItemRequest(long userId, RequestDtoIn requestDto) {
@@ -32,7 +24,7 @@ public class RequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getUserItemRequests(long userId) {
-        return get("", userId);
+        return getCached("", userId, null);
     }
 
     public ResponseEntity<Object> getItemRequestsFromOtherUsers(long userId, int from, int size) {
@@ -44,6 +36,6 @@ public class RequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getOneItemRequest(long userId, long requestId) {
-        return get("/" + requestId, userId);
+        return getCached("/" + requestId, userId, null);
     }
 }
@@ -3,4 +3,7 @@ package ru.practicum.shareit.service;
 public class Header {
 
     public static final String USER_ID = "X-Sharer-User-Id";
+
+    // курсор следующей страницы списка бронирований
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
 }
@@ -11,7 +11,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -73,6 +75,36 @@ class BookingControllerTest {
                 .saveBooking(anyLong(), any());
     }
 
+    @Test
+    void shouldSaveBookingsInBatch() throws Exception {
+        when(bookingClient.saveBookings(anyLong(), any()))
+                .thenReturn(new ResponseEntity<>(List.of(bookingDtoIn), HttpStatus.OK));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDtoIn)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(bookingClient, times(1))
+                .saveBookings(eq(1L), argThat(bookings -> bookings.size() == 1));
+    }
+
+    @Test
+    void shouldNotSaveBatchWithInvalidBooking() throws Exception {
+        BookingDtoIn endBeforeStart = new BookingDtoIn(null, bookingDtoIn.getEnd(), bookingDtoIn.getStart(), 1L);
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDtoIn, endBeforeStart)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never())
+                .saveBookings(anyLong(), any());
+    }
+
     @Test
     void shouldSaveBookingWithEndBeforeStart() throws Exception {
         bookingDtoIn.setStart(bookingDtoIn.getEnd().plusHours(2));
@@ -153,6 +185,42 @@ class BookingControllerTest {
                 .saveBooking(anyLong(), any());
     }
 
+    @Test
+    void shouldApproveAllInBatch() throws Exception {
+        when(bookingClient.bookingApproveAll(anyLong(), any()))
+                .thenReturn(new ResponseEntity<>(List.of(), HttpStatus.OK));
+
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(1L, true),
+                                new BookingDecisionDto(2L, false))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1))
+                .bookingApproveAll(eq(1L), argThat(decisions -> decisions.size() == 2
+                        && decisions.get(1).getBookingId() == 2L && !decisions.get(1).getApproved()));
+        verify(bookingClient, never())
+                .bookingApprove(anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldNotApproveEmptyOrIncompleteBatch() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isBadRequest());
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(1L, null))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never())
+                .bookingApproveAll(anyLong(), any());
+    }
+
     @Test
     void shouldBookingApprove() throws Exception {
         long userId = 1L;
@@ -206,7 +274,7 @@ class BookingControllerTest {
         List<BookingDtoIn> bookingList = List.of(bookingDtoIn);
         ResponseEntity<Object> responseWithList = new ResponseEntity<>(bookingList, HttpStatus.OK);
 
-        when(bookingClient.findUserBookings(userId, enumState, from, size))
+        when(bookingClient.findUserBookings(userId, enumState, from, size, null))
                 .thenReturn(responseWithList);
 
         mvc.perform(get("/bookings")
@@ -223,7 +291,34 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].end", notNullValue()));
 
         verify(bookingClient, times(1))
-                .findUserBookings(userId, enumState, from, size);
+                .findUserBookings(userId, enumState, from, size, null);
+    }
+
+    @Test
+    void shouldFindUserBookingsAfterCursor() throws Exception {
+        String cursor = new BookingCursor(LocalDateTime.of(2023, 3, 1, 10, 15), 15L).toString();
+        when(bookingClient.findUserBookings(1L, BookingState.ALL, 0, 5, cursor))
+                .thenReturn(new ResponseEntity<>(List.of(), HttpStatus.OK));
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1)
+                        .param("size", "5")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1))
+                .findUserBookings(1L, BookingState.ALL, 0, 5, cursor);
+    }
+
+    @Test
+    void shouldNotFindOwnerBookingsWithBadCursor() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID, 1)
+                        .param("cursor", "не курсор"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never())
+                .findOwnerBookings(anyLong(), any(), anyInt(), anyInt(), any());
     }
 
     @Test
@@ -242,7 +337,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .findUserBookings(userId, enumState, from, size);
+                .findUserBookings(userId, enumState, from, size, null);
     }
 
     @Test
@@ -261,7 +356,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .findUserBookings(userId, enumState, from, size);
+                .findUserBookings(userId, enumState, from, size, null);
     }
 
     @Test
@@ -280,7 +375,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .findUserBookings(userId, enumState, from, size);
+                .findUserBookings(userId, enumState, from, size, null);
     }
 
     @Test
@@ -293,7 +388,7 @@ class BookingControllerTest {
         List<BookingDtoIn> bookingList = List.of(bookingDtoIn);
         ResponseEntity<Object> responseWithList = new ResponseEntity<>(bookingList, HttpStatus.OK);
 
-        when(bookingClient.findOwnerBookings(userId, enumState, from, size))
+        when(bookingClient.findOwnerBookings(userId, enumState, from, size, null))
                 .thenReturn(responseWithList);
 
         mvc.perform(get("/bookings/owner")
@@ -310,7 +405,7 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].end", notNullValue()));
 
         verify(bookingClient, times(1))
-                .findOwnerBookings(userId, enumState, from, size);
+                .findOwnerBookings(userId, enumState, from, size, null);
     }
 
     @Test
@@ -329,7 +424,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .findOwnerBookings(userId, enumState, from, size);
+                .findOwnerBookings(userId, enumState, from, size, null);
     }
 
     @Test
@@ -348,7 +443,7 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .findOwnerBookings(userId, enumState, from, size);
+                .findOwnerBookings(userId, enumState, from, size, null);
     }
 
     @Test
@@ -367,6 +462,6 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .findOwnerBookings(userId, enumState, from, size);
+                .findOwnerBookings(userId, enumState, from, size, null);
     }
 }
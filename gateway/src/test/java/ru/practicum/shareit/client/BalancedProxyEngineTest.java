@@ -0,0 +1,149 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalancedProxyEngineTest {
+
+    private final ShareItServerProperties.Balancer balancer = new ShareItServerProperties.Balancer();
+    private final ServerInstance first = new ServerInstance("http://server1:9090");
+    private final ServerInstance second = new ServerInstance("http://server2:9090");
+
+    @Test
+    void shouldPreferInstanceWithFewerOutstandingRequests() {
+        AtomicInteger firstCalls = new AtomicInteger();
+        AtomicInteger secondCalls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+        BalancedProxyEngine engine = new BalancedProxyEngine(List.of(
+                new BalancedProxyEngine.Member(first, counting(firstCalls, pending)),
+                new BalancedProxyEngine.Member(second, counting(secondCalls, pending))), balancer);
+
+        for (int i = 0; i < 10; i++) {
+            send(engine, HttpMethod.GET);
+        }
+
+        // с двумя экземплярами выбор из двух всегда сравнивает оба
+        assertThat(firstCalls.get(), equalTo(5));
+        assertThat(secondCalls.get(), equalTo(5));
+        pending.complete(ResponseEntity.ok().build());
+        assertThat(first.getOutstanding() + second.getOutstanding(), equalTo(0));
+    }
+
+    @Test
+    void shouldRetryGetOnAnotherInstance() {
+        ServerInstance third = new ServerInstance("http://server3:9090");
+        BalancedProxyEngine engine = new BalancedProxyEngine(List.of(
+                new BalancedProxyEngine.Member(first, failing()),
+                new BalancedProxyEngine.Member(second, respond(HttpStatus.SERVICE_UNAVAILABLE)),
+                new BalancedProxyEngine.Member(third, respond(HttpStatus.OK))), balancer);
+        balancer.setMaxAttempts(3);
+        balancer.setFailuresToEject(100);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(send(engine, HttpMethod.GET).join().getStatusCode(), equalTo(HttpStatus.OK));
+        }
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentRequests() {
+        AtomicInteger calls = new AtomicInteger();
+        BalancedProxyEngine engine = new BalancedProxyEngine(List.of(
+                new BalancedProxyEngine.Member(first, (method, path, parameters, requestEntity) -> {
+                    calls.incrementAndGet();
+                    return CompletableFuture.failedFuture(new IllegalStateException("Connection refused"));
+                }),
+                new BalancedProxyEngine.Member(second, (method, path, parameters, requestEntity) -> {
+                    calls.incrementAndGet();
+                    return CompletableFuture.failedFuture(new IllegalStateException("Connection refused"));
+                })), balancer);
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> send(engine, HttpMethod.POST).join());
+
+        assertThat(thrown.getCause(), instanceOf(IllegalStateException.class));
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void shouldNotRetryApplicationErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> error =
+                CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        BalancedProxyEngine engine = new BalancedProxyEngine(List.of(
+                new BalancedProxyEngine.Member(first, counting(calls, error)),
+                new BalancedProxyEngine.Member(second, counting(calls, error))), balancer);
+
+        assertThat(send(engine, HttpMethod.GET).join().getStatusCode(), equalTo(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void shouldEjectFailingInstance() {
+        balancer.setFailuresToEject(2);
+        balancer.setMaxAttempts(1);
+        AtomicInteger healthyCalls = new AtomicInteger();
+        BalancedProxyEngine engine = new BalancedProxyEngine(List.of(
+                new BalancedProxyEngine.Member(first, failing()),
+                new BalancedProxyEngine.Member(second, counting(healthyCalls,
+                        CompletableFuture.completedFuture(ResponseEntity.ok().build())))), balancer);
+
+        int failures = 0;
+        for (int i = 0; i < 20; i++) {
+            try {
+                send(engine, HttpMethod.GET).join();
+            } catch (CompletionException e) {
+                failures++;
+            }
+        }
+
+        assertThat(failures, equalTo(2));
+        assertThat(first.isAvailable(System.nanoTime()), is(false));
+        assertThat(healthyCalls.get(), equalTo(18));
+    }
+
+    @Test
+    void shouldTryEjectedInstancesWhenNoOtherLeft() {
+        balancer.setFailuresToEject(1);
+        BalancedProxyEngine engine = new BalancedProxyEngine(List.of(
+                new BalancedProxyEngine.Member(first, respond(HttpStatus.OK))), balancer);
+        first.onStart();
+        first.onFinish(true, System.nanoTime(), balancer);
+
+        assertThat(first.isAvailable(System.nanoTime()), is(false));
+        assertThat(send(engine, HttpMethod.GET).join().getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(first.isAvailable(System.nanoTime()), is(true));
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> send(BalancedProxyEngine engine, HttpMethod method) {
+        return engine.exchange(method, "/1", null, HttpEntity.EMPTY);
+    }
+
+    private static ProxyEngine counting(AtomicInteger calls, CompletableFuture<ResponseEntity<Object>> response) {
+        return (method, path, parameters, requestEntity) -> {
+            calls.incrementAndGet();
+            return response;
+        };
+    }
+
+    private static ProxyEngine respond(HttpStatus status) {
+        return (method, path, parameters, requestEntity) ->
+                CompletableFuture.completedFuture(ResponseEntity.status(status).build());
+    }
+
+    private static ProxyEngine failing() {
+        return (method, path, parameters, requestEntity) ->
+                CompletableFuture.failedFuture(new IllegalStateException("Connection refused"));
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.service.Header.NEXT_CURSOR;
+import static ru.practicum.shareit.service.Header.USER_ID;
+
+class BaseClientTest {
+
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Вещь 1\",\"available\":true}";
+
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void beforeEach() {
+        rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+    }
+
+    @Test
+    void shouldPassServerBodyThroughAsBytes() {
+        TestClient client = new TestClient(rest, true);
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(USER_ID, "1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), instanceOf(byte[].class));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8), equalTo(ITEM_JSON));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        server.verify();
+    }
+
+    @Test
+    void shouldPassServerErrorThroughWithContentType() {
+        TestClient client = new TestClient(rest, true);
+        String error = "{\"error\":\"Предмета с ID 1 не зарегистрировано\"}";
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8), equalTo(error));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldNotPassHopByHopHeaders() {
+        TestClient client = new TestClient(rest, true);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONNECTION), is(false));
+    }
+
+    @Test
+    void shouldPassNextCursorHeader() {
+        TestClient client = new TestClient(rest, true);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NEXT_CURSOR, "MjAyMy0wMy0wMVQxMDoxNSwxNQ");
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertThat(response.getHeaders().getFirst(NEXT_CURSOR), equalTo("MjAyMy0wMy0wMVQxMDoxNSwxNQ"));
+    }
+
+    @Test
+    void shouldDeserializeBodyWhenPassthroughDisabled() {
+        TestClient client = new TestClient(rest, false);
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertThat(response.getBody(), instanceOf(Map.class));
+        assertThat(((Map<?, ?>) response.getBody()).get("name"), equalTo("Вещь 1"));
+    }
+
+    @Test
+    void shouldDeferResponseUntilEngineCompletes() {
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+        TestClient client = new TestClient((method, path, parameters, requestEntity) -> pending);
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertThat(response, instanceOf(DeferredResponse.class));
+        assertThat(((DeferredResponse) response).getResponse(), sameInstance(pending));
+    }
+
+    @Test
+    void shouldRethrowEngineFailure() {
+        IllegalStateException failure = new IllegalStateException("Сервер недоступен");
+        TestClient client = new TestClient((method, path, parameters, requestEntity) ->
+                CompletableFuture.failedFuture(failure));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> client.get("/1", 1L));
+
+        assertThat(thrown, sameInstance(failure));
+    }
+
+    @Test
+    void shouldShareIdenticalGetsInFlight() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+        TestClient client = new TestClient((method, path, parameters, requestEntity) -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+
+        ResponseEntity<Object> first = client.getShared("/search?text={text}", null, Map.of("text", "дрель"));
+        ResponseEntity<Object> second = client.getShared("/search?text={text}", null, Map.of("text", "дрель"));
+        client.getShared("/search?text={text}", null, Map.of("text", "отвёртка"));
+        client.getShared("/search?text={text}", 2L, Map.of("text", "дрель"));
+
+        assertThat(calls.get(), equalTo(3));
+        assertThat(((DeferredResponse) second).getResponse(), sameInstance(((DeferredResponse) first).getResponse()));
+    }
+
+    @Test
+    void shouldServeCachedBodyWhenServerAnswersNotModified() {
+        TestClient client = new TestClient(new RestTemplateProxyEngine(rest, true), new ResponseCache(10));
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag("\"v1\"")));
+
+        ResponseEntity<Object> first = client.getCached("/1", 1L, null);
+        ResponseEntity<Object> second = client.getCached("/1", 1L, null);
+
+        assertThat(second.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(second.getHeaders().getETag(), equalTo("\"v1\""));
+        assertThat(second.getBody(), sameInstance(first.getBody()));
+        server.verify();
+    }
+
+    @Test
+    void shouldReplaceCachedBodyWhenEtagChanges() {
+        String updated = "{\"id\":1,\"name\":\"Вещь 1\",\"available\":false}";
+        TestClient client = new TestClient(new RestTemplateProxyEngine(rest, true), new ResponseCache(10));
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess(updated, MediaType.APPLICATION_JSON).headers(etag("\"v2\"")));
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.getCached("/1", 1L, null);
+        client.getCached("/1", 1L, null);
+        ResponseEntity<Object> third = client.getCached("/1", 1L, null);
+
+        assertThat(new String((byte[]) third.getBody(), StandardCharsets.UTF_8), equalTo(updated));
+        server.verify();
+    }
+
+    private static HttpHeaders etag(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(value);
+        return headers;
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(RestTemplate rest, boolean passthrough) {
+            super(new RestTemplateProxyEngine(rest, passthrough));
+        }
+
+        TestClient(ProxyEngine engine) {
+            super(engine);
+        }
+
+        TestClient(ProxyEngine engine, ResponseCache cache) {
+            super(engine, cache);
+        }
+
+        @Override
+        protected ResponseEntity<Object> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+
+        @Override
+        protected ResponseEntity<Object> getCached(String path, long userId, Map<String, Object> parameters) {
+            return super.getCached(path, userId, parameters);
+        }
+
+        @Override
+        protected ResponseEntity<Object> getShared(String path, Long userId, Map<String, Object> parameters) {
+            return super.getShared(path, userId, parameters);
+        }
+    }
+}
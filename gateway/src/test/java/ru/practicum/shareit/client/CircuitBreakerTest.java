@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CircuitBreakerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private ResilienceProperties.Breaker properties;
+
+    @BeforeEach
+    void beforeEach() {
+        properties = new ResilienceProperties.Breaker();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallDuration(Duration.ofMillis(500));
+        properties.setSlowCallRateThreshold(75);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(properties);
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(true, MS, 0);
+        }
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquirePermission(0), is(true));
+    }
+
+    @Test
+    void shouldOpenOnFailureRateAndRejectCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(properties);
+
+        breaker.onResult(false, MS, 0);
+        breaker.onResult(false, MS, 0);
+        breaker.onResult(true, MS, 0);
+        breaker.onResult(true, MS, 0);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquirePermission(SECOND), is(false));
+        assertThat(breaker.remainingOpenNanos(SECOND), equalTo(9 * SECOND));
+    }
+
+    @Test
+    void shouldOpenOnSlowCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(properties);
+
+        breaker.onResult(false, MS, 0);
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(false, 600 * MS, 0);
+        }
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    void shouldForgetOutcomesOutsideWindow() {
+        properties.setMinimumCalls(properties.getWindowSize() + 1);
+        CircuitBreaker breaker = new CircuitBreaker(properties);
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(true, MS, 0);
+        }
+        assertThat(breaker.failureRate(), equalTo(100.0));
+        for (int i = 0; i < 10; i++) {
+            breaker.onResult(false, MS, 0);
+        }
+
+        assertThat(breaker.failureRate(), equalTo(0.0));
+        assertThat(breaker.bufferedCalls(), equalTo(10));
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulTrialCalls() {
+        CircuitBreaker breaker = opened();
+
+        long afterOpen = 11 * SECOND;
+        assertThat(breaker.tryAcquirePermission(afterOpen), is(true));
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        assertThat(breaker.tryAcquirePermission(afterOpen), is(true));
+        assertThat(breaker.tryAcquirePermission(afterOpen), is(false));
+
+        breaker.onResult(false, MS, afterOpen);
+        breaker.onResult(false, MS, afterOpen);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.bufferedCalls(), equalTo(0));
+    }
+
+    @Test
+    void shouldReopenWhenTrialCallFails() {
+        CircuitBreaker breaker = opened();
+
+        long afterOpen = 11 * SECOND;
+        assertThat(breaker.tryAcquirePermission(afterOpen), is(true));
+        breaker.onResult(true, MS, afterOpen);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquirePermission(afterOpen + SECOND), is(false));
+    }
+
+    private CircuitBreaker opened() {
+        CircuitBreaker breaker = new CircuitBreaker(properties);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true, MS, 0);
+        }
+        return breaker;
+    }
+}
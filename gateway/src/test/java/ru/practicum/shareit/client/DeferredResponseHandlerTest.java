@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DeferredResponseHandlerTest {
+
+    private final TestController controller = new TestController();
+    private MockMvc mvc;
+
+    @BeforeEach
+    void beforeEach() {
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomReturnValueHandlers(new DeferredResponseHandler())
+                .build();
+    }
+
+    @Test
+    void shouldWriteResponseWhenFutureCompletes() throws Exception {
+        MvcResult result = mvc.perform(get("/test"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        controller.pending.complete(ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"id\":1}"));
+    }
+
+    @Test
+    void shouldPassFailureToExceptionHandler() throws Exception {
+        MvcResult result = mvc.perform(get("/test"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        controller.pending.completeExceptionally(new IllegalStateException("Сервер недоступен"));
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @RestController
+    static class TestController {
+
+        private final CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+
+        @GetMapping("/test")
+        public ResponseEntity<Object> test() {
+            return new DeferredResponse(pending);
+        }
+
+        @ExceptionHandler
+        public ResponseEntity<String> handle(IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GuardedProxyEngineTest {
+
+    private final ResilienceProperties.Breaker properties = new ResilienceProperties.Breaker();
+
+    @Test
+    void shouldRejectWhenBulkheadIsFull() {
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+        GuardedProxyEngine engine = new GuardedProxyEngine((method, path, parameters, requestEntity) -> pending,
+                "items", 2, new CircuitBreaker(properties));
+
+        send(engine);
+        send(engine);
+        CompletionException thrown = assertThrows(CompletionException.class, () -> send(engine).join());
+
+        assertThat(thrown.getCause(), instanceOf(ServiceUnavailableException.class));
+        assertThat(thrown.getCause().getMessage(), containsString("/items"));
+        assertThat(engine.getAvailableConcurrent(), equalTo(0));
+
+        pending.complete(ResponseEntity.ok().build());
+
+        assertThat(engine.getAvailableConcurrent(), equalTo(2));
+    }
+
+    @Test
+    void shouldFailFastWhenServerKeepsFailing() {
+        properties.setMinimumCalls(3);
+        AtomicInteger calls = new AtomicInteger();
+        GuardedProxyEngine engine = new GuardedProxyEngine((method, path, parameters, requestEntity) -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build());
+        }, "bookings", 10, new CircuitBreaker(properties));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(engine).join().getStatusCode(), equalTo(HttpStatus.BAD_GATEWAY));
+        }
+        CompletionException thrown = assertThrows(CompletionException.class, () -> send(engine).join());
+
+        assertThat(calls.get(), equalTo(3));
+        assertThat(thrown.getCause(), instanceOf(ServiceUnavailableException.class));
+        assertThat(((ServiceUnavailableException) thrown.getCause()).getRetryAfter(), greaterThanOrEqualTo(1L));
+        assertThat(engine.getBreaker().getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(engine.getAvailableConcurrent(), equalTo(10));
+    }
+
+    @Test
+    void shouldNotCountClientErrorsAsFailures() {
+        properties.setMinimumCalls(3);
+        GuardedProxyEngine engine = new GuardedProxyEngine((method, path, parameters, requestEntity) ->
+                CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build()),
+                "users", 10, new CircuitBreaker(properties));
+
+        for (int i = 0; i < 5; i++) {
+            send(engine).join();
+        }
+
+        assertThat(engine.getBreaker().getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(engine.getBreaker().failureRate(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldCountConnectionErrorsAsFailures() {
+        properties.setMinimumCalls(2);
+        GuardedProxyEngine engine = new GuardedProxyEngine((method, path, parameters, requestEntity) -> {
+            throw new IllegalStateException("Connection refused");
+        }, "requests", 10, new CircuitBreaker(properties));
+
+        assertThrows(CompletionException.class, () -> send(engine).join());
+        assertThrows(CompletionException.class, () -> send(engine).join());
+
+        assertThat(engine.getBreaker().getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> send(GuardedProxyEngine engine) {
+        return engine.exchange(HttpMethod.GET, "/1", null, HttpEntity.EMPTY);
+    }
+}
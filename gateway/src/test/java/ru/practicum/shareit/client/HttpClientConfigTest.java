@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+
+    @Test
+    void shouldConfigurePoolLimits() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxTotal(10);
+        properties.setMaxPerRoute(5);
+        properties.setValidateAfterInactivity(Duration.ofMillis(500));
+
+        PoolingHttpClientConnectionManager connectionManager = config.shareItConnectionManager(properties);
+
+        assertThat(connectionManager.getMaxTotal(), equalTo(10));
+        assertThat(connectionManager.getDefaultMaxPerRoute(), equalTo(5));
+        assertThat(connectionManager.getValidateAfterInactivity(), equalTo(500));
+        connectionManager.close();
+    }
+
+    @Test
+    void shouldExposePoolStats() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxTotal(7);
+        PoolingHttpClientConnectionManager connectionManager = config.shareItConnectionManager(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.httpPoolMetrics(connectionManager).bindTo(registry);
+
+        assertThat(registry.find("shareit.http.pool.max").gauge(), notNullValue());
+        assertThat(registry.get("shareit.http.pool.max").gauge().value(), equalTo(7.0));
+        assertThat(registry.get("shareit.http.pool.leased").gauge().value(), equalTo(0.0));
+        assertThat(registry.get("shareit.http.pool.available").gauge().value(), equalTo(0.0));
+        assertThat(registry.get("shareit.http.pool.pending").gauge().value(), equalTo(0.0));
+        connectionManager.close();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    @Test
+    void shouldShareInFlightCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.execute("/1", () -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.execute("/1", () -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+        pending.complete(ResponseEntity.ok("Вещь 1"));
+
+        assertThat(calls.get(), equalTo(1));
+        assertThat(second, sameInstance(first));
+        assertThat(first.join().getBody(), equalTo("Вещь 1"));
+        assertThat(coalescer.inFlight(), equalTo(0));
+    }
+
+    @Test
+    void shouldNotShareDifferentKeys() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute("/1", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        coalescer.execute("/2", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(coalescer.inFlight(), equalTo(2));
+    }
+
+    @Test
+    void shouldCallServerAgainAfterCompletion() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute("/1", () -> CompletableFuture.completedFuture(ResponseEntity.ok(calls.incrementAndGet())));
+        ResponseEntity<Object> second = coalescer.execute("/1",
+                () -> CompletableFuture.completedFuture(ResponseEntity.ok(calls.incrementAndGet()))).join();
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(second.getBody(), equalTo(2));
+    }
+
+    @Test
+    void shouldShareFailureAndReleaseKey() {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.execute("/1", () -> {
+            throw new IllegalStateException("Сервер недоступен");
+        });
+
+        CompletionException thrown = assertThrows(CompletionException.class, first::join);
+
+        assertThat(thrown.getCause(), instanceOf(IllegalStateException.class));
+        assertThat(coalescer.inFlight(), equalTo(0));
+    }
+
+    @Test
+    void shouldCallServerOnceForConcurrentRequests() throws Exception {
+        int threads = 16;
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> pending = new CompletableFuture<>();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    ready.countDown();
+                    try {
+                        ready.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    coalescer.execute("/search?text=дрель", () -> {
+                        calls.incrementAndGet();
+                        return pending;
+                    });
+                    done.countDown();
+                });
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(calls.get(), equalTo(1));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(2);
+
+    @Test
+    void shouldStoreOnlyResponsesWithEtag() {
+        cache.revalidate("/1", null, ResponseEntity.ok().eTag("\"v1\"").body("Вещь 1"));
+        cache.revalidate("/2", null, ResponseEntity.ok("Вещь 2"));
+
+        assertThat(cache.get("/1"), notNullValue());
+        assertThat(cache.get("/2"), nullValue());
+    }
+
+    @Test
+    void shouldReturnCachedResponseOnNotModified() {
+        ResponseEntity<Object> cached = ResponseEntity.ok().eTag("\"v1\"").body("Вещь 1");
+        cache.revalidate("/1", null, cached);
+
+        ResponseEntity<Object> response = cache.revalidate("/1", cached,
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        assertThat(response, sameInstance(cached));
+    }
+
+    @Test
+    void shouldDropEntryOnError() {
+        ResponseEntity<Object> cached = ResponseEntity.ok().eTag("\"v1\"").body("Вещь 1");
+        cache.revalidate("/1", null, cached);
+
+        cache.revalidate("/1", cached, ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        assertThat(cache.get("/1"), nullValue());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        cache.revalidate("/1", null, ResponseEntity.ok().eTag("\"v1\"").body("Вещь 1"));
+        cache.revalidate("/2", null, ResponseEntity.ok().eTag("\"v2\"").body("Вещь 2"));
+        cache.get("/1");
+        cache.revalidate("/3", null, ResponseEntity.ok().eTag("\"v3\"").body("Вещь 3"));
+
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.get("/1"), notNullValue());
+        assertThat(cache.get("/2"), nullValue());
+    }
+}
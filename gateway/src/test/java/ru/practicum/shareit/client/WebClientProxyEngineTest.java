@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static ru.practicum.shareit.service.Header.USER_ID;
+
+class WebClientProxyEngineTest {
+
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Вещь 1\",\"available\":true}";
+
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+    @Test
+    void shouldExpandPathAndPassBodyThroughAsBytes() {
+        WebClientProxyEngine engine = new WebClientProxyEngine(webClient(respond(HttpStatus.OK, ITEM_JSON)), true);
+
+        ResponseEntity<Object> response = engine.exchange(HttpMethod.GET, "/search?text={text}&from={from}",
+                Map.of("text", "дрель", "from", 0), new HttpEntity<>(headers())).join();
+
+        assertThat(sent.get().url().toString(), equalTo(
+                "http://server/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C&from=0"));
+        assertThat(sent.get().headers().getFirst(USER_ID), equalTo("1"));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8), equalTo(ITEM_JSON));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONNECTION), is(false));
+    }
+
+    @Test
+    void shouldReturnServerErrorAsResponse() {
+        String error = "{\"error\":\"Предмета с ID 1 не зарегистрировано\"}";
+        WebClientProxyEngine engine = new WebClientProxyEngine(webClient(respond(HttpStatus.NOT_FOUND, error)), true);
+
+        ResponseEntity<Object> response = engine.exchange(HttpMethod.GET, "/1", null,
+                new HttpEntity<>(headers())).join();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8), equalTo(error));
+    }
+
+    @Test
+    void shouldDeserializeBodyWhenPassthroughDisabled() {
+        WebClientProxyEngine engine = new WebClientProxyEngine(webClient(respond(HttpStatus.OK, ITEM_JSON)), false);
+
+        ResponseEntity<Object> response = engine.exchange(HttpMethod.GET, "/1", null,
+                new HttpEntity<>(headers())).join();
+
+        assertThat(response.getBody(), instanceOf(Map.class));
+        assertThat(((Map<?, ?>) response.getBody()).get("name"), equalTo("Вещь 1"));
+    }
+
+    private WebClient webClient(ClientResponse response) {
+        return WebClient.builder()
+                .uriBuilderFactory(new DefaultUriBuilderFactory("http://server/items"))
+                .exchangeFunction(request -> {
+                    sent.set(request);
+                    return Mono.just(response);
+                })
+                .build();
+    }
+
+    private static ClientResponse respond(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONNECTION, "keep-alive")
+                .body(body)
+                .build();
+    }
+
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_ID, "1");
+        return headers;
+    }
+}
@@ -7,14 +7,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDtoIn;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.SearchMode;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -33,6 +36,9 @@ class ItemControllerTest {
     @MockBean
     private ItemClient itemClient;
 
+    @MockBean
+    private ItemImporter itemImporter;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -73,6 +79,63 @@ class ItemControllerTest {
                 .createItem(anyLong(), any());
     }
 
+    @Test
+    void shouldSaveItemsInBatch() throws Exception {
+        when(itemClient.createItems(anyLong(), any()))
+                .thenReturn(new ResponseEntity<>(List.of(itemDto), HttpStatus.OK));
+
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(itemClient, times(1))
+                .createItems(eq(1L), argThat(items -> items.size() == 1));
+    }
+
+    @Test
+    void shouldNotSaveEmptyBatchOrBatchWithInvalidItem() throws Exception {
+        ItemDto noName = new ItemDto(null, "", "Описание", true, null);
+
+        mvc.perform(post("/items/batch")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto, noName)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never())
+                .createItems(anyLong(), any());
+    }
+
+    @Test
+    void shouldImportItemsInNdjsonOrCsv() throws Exception {
+        when(itemImporter.importItems(anyLong(), anyBoolean(), any()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mvc.perform(post("/items/import")
+                        .content("{\"name\": \"Вещь 1\"}\n")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk());
+        mvc.perform(post("/items/import")
+                        .content("name,description,available\nВещь 1,Описание,true\n".getBytes(StandardCharsets.UTF_8))
+                        .contentType("text/csv;charset=UTF-8")
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk());
+
+        verify(itemImporter, times(1)).importItems(eq(1L), eq(false), any());
+        verify(itemImporter, times(1)).importItems(eq(1L), eq(true), any());
+    }
+
     @Test
     void shouldSaveItemWithEmptyName() throws Exception {
         itemDto.setName("");
@@ -188,6 +251,21 @@ class ItemControllerTest {
                 .getItemById(anyLong(), anyLong());
     }
 
+    @Test
+    void shouldAnswerNotModifiedWhenEtagMatches() throws Exception {
+        when(itemClient.getItemById(anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok()
+                        .eTag("\"0a1b2c\"")
+                        .body(itemDto));
+
+        mvc.perform(get("/items/1")
+                        .header(USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0a1b2c\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0a1b2c\""))
+                .andExpect(content().string(""));
+    }
+
     @Test
     void shouldGetUserItemsWithNoParams() throws Exception {
         List<ItemDto> itemList = List.of(itemDto);
@@ -285,7 +363,7 @@ class ItemControllerTest {
         List<ItemDto> itemList = List.of(itemDto);
         ResponseEntity<Object> responseWithList = new ResponseEntity<>(itemList, HttpStatus.OK);
 
-        when(itemClient.search(userId, text, from, size))
+        when(itemClient.search(userId, text, SearchMode.FULLTEXT, from, size))
                 .thenReturn(responseWithList);
         mvc.perform(get("/items/search")
                         .header(USER_ID, 1L)
@@ -296,7 +374,139 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(itemList)));
 
         verify(itemClient, times(1))
-                .search(userId, text, from, size);
+                .search(userId, text, SearchMode.FULLTEXT, from, size);
+    }
+
+    @Test
+    void shouldSearchInRequestedMode() throws Exception {
+        ResponseEntity<Object> responseWithList = new ResponseEntity<>(List.of(itemDto), HttpStatus.OK);
+        when(itemClient.search(1L, "дре", SearchMode.TRIGRAM, 0, 20))
+                .thenReturn(responseWithList);
+
+        mvc.perform(get("/items/search")
+                        .header(USER_ID, 1L)
+                        .param("text", "дре")
+                        .param("mode", "Trigram"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(itemClient, times(1))
+                .search(1L, "дре", SearchMode.TRIGRAM, 0, 20);
+    }
+
+    @Test
+    void shouldNotSearchInUnknownMode() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header(USER_ID, 1L)
+                        .param("text", "дре")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never())
+                .search(anyLong(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldSuggest() throws Exception {
+        when(itemClient.suggest("дре", 5))
+                .thenReturn(new ResponseEntity<>(List.of("дрель", "дрезина"), HttpStatus.OK));
+
+        mvc.perform(get("/items/suggest")
+                        .header(USER_ID, 1L)
+                        .param("prefix", "дре")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("дрель")));
+    }
+
+    @Test
+    void shouldNotSuggestForBlankPrefix() throws Exception {
+        mvc.perform(get("/items/suggest")
+                        .header(USER_ID, 1L)
+                        .param("prefix", " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(itemClient, never())
+                .suggest(any(), anyInt());
+    }
+
+    @Test
+    void shouldNotSuggestTooMany() throws Exception {
+        mvc.perform(get("/items/suggest")
+                        .header(USER_ID, 1L)
+                        .param("prefix", "дре")
+                        .param("size", "51"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never())
+                .suggest(any(), anyInt());
+    }
+
+    @Test
+    void shouldGetComments() throws Exception {
+        when(itemClient.getComments(anyLong(), any(), anyInt()))
+                .thenReturn(new ResponseEntity<>(List.of(), HttpStatus.OK));
+
+        mvc.perform(get("/items/1/comments")
+                        .header(USER_ID, 1L)
+                        .param("after", "2023-03-01T10:15:30.123456,15")
+                        .param("limit", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1))
+                .getComments(eq(1L), argThat(cursor -> cursor.getId() == 15L
+                        && cursor.toString().equals("2023-03-01T10:15:30.123456,15")), eq(5));
+    }
+
+    @Test
+    void shouldNotGetCommentsWithBadCursor() throws Exception {
+        mvc.perform(get("/items/1/comments")
+                        .header(USER_ID, 1L)
+                        .param("after", "15"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never())
+                .getComments(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void shouldNotGetTooManyComments() throws Exception {
+        mvc.perform(get("/items/1/comments")
+                        .header(USER_ID, 1L)
+                        .param("limit", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never())
+                .getComments(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void shouldGetAvailability() throws Exception {
+        when(itemClient.getAvailability(anyLong(), any(), any()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mvc.perform(get("/items/1/availability")
+                        .header(USER_ID, 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-11T00:00:00"))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1))
+                .getAvailability(1L, LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 11, 0, 0));
+    }
+
+    @Test
+    void shouldNotGetAvailabilityForEmptyPeriod() throws Exception {
+        mvc.perform(get("/items/1/availability")
+                        .header(USER_ID, 1L)
+                        .param("from", "2030-01-11T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never())
+                .getAvailability(anyLong(), any(), any());
     }
 
     @Test
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.BadParameterException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+
+import javax.validation.Validation;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemImporterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private ItemClient itemClient;
+    private ItemImporter importer;
+
+    @BeforeEach
+    void beforeEach() {
+        itemClient = mock(ItemClient.class);
+        importer = new ItemImporter(itemClient, Validation.buildDefaultValidatorFactory().getValidator(), mapper);
+        // сервер создаёт все присланные вещи
+        when(itemClient.importItems(anyLong(), anyString()))
+                .thenAnswer(invocation -> {
+                    long lines = ((String) invocation.getArgument(1)).lines().count();
+                    return ResponseEntity.ok(Map.of("imported", lines, "failed", 0, "errors", List.of()));
+                });
+    }
+
+    @Test
+    void shouldSendOnlyValidNdjsonLinesAndReportInputLineNumbers() throws IOException {
+        when(itemClient.importItems(anyLong(), anyString()))
+                .thenReturn(ResponseEntity.ok(Map.of("imported", 1, "failed", 1,
+                        "errors", List.of(Map.of("line", 2, "error", "Запроса с ID 99 нет в базе")))));
+        String input = "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}\n"
+                + "{\"name\": \"Пила\"\n"
+                + "\r\n"
+                + "{\"name\": \"\", \"description\": \"Без названия\", \"available\": true}\n"
+                + "{\"name\": \"Лестница\", \"description\": \"Три метра\", \"available\": true, \"requestId\": 99}";
+
+        ItemImportReportDto report = importReport(false, input);
+
+        assertThat(report.getImported(), equalTo(1));
+        assertThat(report.getFailed(), equalTo(3));
+        assertThat(lines(report), contains(2L, 4L, 5L));
+        assertThat(report.getErrors().get(1).getError(), startsWith("name: "));
+        assertThat(report.getErrors().get(2).getError(), equalTo("Запроса с ID 99 нет в базе"));
+        verify(itemClient, times(1))
+                .importItems(eq(1L), argThat(ndjson -> ndjson.lines().count() == 2
+                        && ndjson.contains("Дрель") && ndjson.contains("\"requestId\":99")));
+    }
+
+    @Test
+    void shouldImportCsvWithQuotedFieldsInAnyColumnOrder() throws IOException {
+        String input = "Available,Name,Description\n"
+                + "true,Дрель,\"Ударная, \"\"Bosch\"\"\"\n"
+                + "да,Пила,Ножовка\n"
+                + "true,\"Лестница,Три метра\n"
+                + "false,Палатка\n"
+                + "false,Палатка,Двухместная,лишнее\n"
+                + "false,Палатка,Двухместная";
+
+        ItemImportReportDto report = importReport(true, input);
+
+        assertThat(report.getImported(), equalTo(2));
+        assertThat(lines(report), contains(3L, 4L, 5L, 6L));
+        assertThat(report.getErrors().get(0).getError(), equalTo("available: ожидается true или false"));
+        assertThat(report.getErrors().get(1).getError(), equalTo("Незакрытые кавычки в строке CSV"));
+        verify(itemClient, times(1))
+                .importItems(eq(1L), argThat(ndjson -> ndjson.contains("\"description\":\"Ударная, \\\"Bosch\\\"\"")
+                        && ndjson.contains("\"available\":false")));
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumn() {
+        assertThrows(BadParameterException.class, () -> importReport(true, "name,description\nДрель,Ударная"));
+        verify(itemClient, never()).importItems(anyLong(), anyString());
+    }
+
+    @Test
+    void shouldSendInChunksAndSkipTooLongLines() throws IOException {
+        String line = "{\"name\": \"Вещь\", \"description\": \"Описание\", \"available\": true}\n";
+        String input = line.repeat(ItemImporter.CHUNK_SIZE * 2 + 1)
+                + "{\"name\": \"" + "ш".repeat(ItemImporter.MAX_LINE_LENGTH) + "\"}\n";
+
+        ItemImportReportDto report = importReport(false, input);
+
+        assertThat(report.getImported(), equalTo(ItemImporter.CHUNK_SIZE * 2 + 1));
+        assertThat(lines(report), contains((long) ItemImporter.CHUNK_SIZE * 2 + 2));
+        verify(itemClient, times(3)).importItems(eq(1L), anyString());
+    }
+
+    @Test
+    void shouldReturnServerErrorOfFirstChunkAndReportLaterOnes() throws IOException {
+        String line = "{\"name\": \"Вещь\", \"description\": \"Описание\", \"available\": true}\n";
+        ResponseEntity<Object> notFound = ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Нет"));
+        when(itemClient.importItems(anyLong(), anyString())).thenReturn(notFound);
+
+        assertThat(importer.importItems(1L, false, new StringReader(line)), sameInstance(notFound));
+
+        when(itemClient.importItems(anyLong(), anyString()))
+                .thenReturn(ResponseEntity.ok(Map.of("imported", ItemImporter.CHUNK_SIZE, "failed", 0,
+                        "errors", List.of())))
+                .thenReturn(notFound);
+
+        ItemImportReportDto report = importReport(false, line.repeat(ItemImporter.CHUNK_SIZE + 2));
+
+        assertThat(report.getImported(), equalTo(ItemImporter.CHUNK_SIZE));
+        assertThat(report.getFailed(), equalTo(2));
+        assertThat(lines(report), contains((long) ItemImporter.CHUNK_SIZE + 1, (long) ItemImporter.CHUNK_SIZE + 2));
+    }
+
+    @Test
+    void shouldReportFirstChunkRejectedByUnavailableServerWithEarlierErrors() throws IOException {
+        String input = "{}\n{\"name\": \"Вещь\", \"description\": \"Описание\", \"available\": true}";
+        when(itemClient.importItems(anyLong(), anyString()))
+                .thenReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build())
+                .thenReturn(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build())
+                .thenThrow(new ServiceUnavailableException("Сервер недоступен", 1));
+
+        for (HttpStatus status : List.of(HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.TOO_MANY_REQUESTS,
+                HttpStatus.SERVICE_UNAVAILABLE)) {
+            ItemImportReportDto report = importReport(false, input);
+
+            assertThat(report.getImported(), equalTo(0));
+            assertThat(report.getFailed(), equalTo(2));
+            assertThat(lines(report), contains(1L, 2L));
+            assertThat(report.getErrors().get(1).getError(), equalTo("Сервер не принял строку: " + status));
+        }
+    }
+
+    @Test
+    void shouldRejectNullAndNonObjectNdjsonLines() throws IOException {
+        String input = "null\n"
+                + "[1, 2]\n"
+                + "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}\n"
+                + "\"Пила\"";
+
+        ItemImportReportDto report = importReport(false, input);
+
+        assertThat(report.getImported(), equalTo(1));
+        assertThat(report.getFailed(), equalTo(3));
+        assertThat(lines(report), contains(1L, 2L, 4L));
+        assertThat(report.getErrors().get(0).getError(), equalTo("Ожидался JSON-объект"));
+        verify(itemClient, times(1)).importItems(eq(1L), argThat(ndjson -> ndjson.lines().count() == 1));
+    }
+
+    @Test
+    void shouldKeepOnlyFirstErrorsInReport() throws IOException {
+        String input = IntStream.range(0, ItemImporter.MAX_ERRORS + 5)
+                .mapToObj(i -> "{}")
+                .collect(Collectors.joining("\n"));
+
+        ItemImportReportDto report = importReport(false, input);
+
+        assertThat(report.getFailed(), equalTo(ItemImporter.MAX_ERRORS + 5));
+        assertThat(report.getErrors(), hasSize(ItemImporter.MAX_ERRORS));
+        verify(itemClient, never()).importItems(anyLong(), anyString());
+    }
+
+    private ItemImportReportDto importReport(boolean csv, String input) throws IOException {
+        ResponseEntity<Object> response = importer.importItems(1L, csv, new StringReader(input));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        return (ItemImportReportDto) response.getBody();
+    }
+
+    private static List<Long> lines(ItemImportReportDto report) {
+        return report.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LoadShedderTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RateLimitProperties.Shedding properties = new RateLimitProperties.Shedding();
+
+    @Test
+    void shouldNotShedWhenLatencyBelowTarget() {
+        properties.setTargetLatency(Duration.ofMillis(100));
+        LoadShedder shedder = new LoadShedder(properties);
+
+        shedder.record(50 * MS, 0);
+
+        assertThat(shedder.shedRatio(0), equalTo(0.0));
+        assertThat(shedder.shouldShed(0), is(false));
+    }
+
+    @Test
+    void shouldShedProportionallyToOvershoot() {
+        properties.setTargetLatency(Duration.ofMillis(100));
+        properties.setSmoothing(1);
+        LoadShedder shedder = new LoadShedder(properties);
+
+        shedder.record(150 * MS, 0);
+        assertThat(shedder.shedRatio(0), closeTo(0.5, 0.001));
+
+        shedder.record(1000 * MS, 0);
+        assertThat(shedder.shedRatio(0), equalTo(properties.getMaxShedRatio()));
+    }
+
+    @Test
+    void shouldSmoothLatency() {
+        properties.setSmoothing(0.5);
+        LoadShedder shedder = new LoadShedder(properties);
+
+        shedder.record(100 * MS, 0);
+        shedder.record(200 * MS, 0);
+
+        assertThat(shedder.averageLatency(0), closeTo(150.0 * MS, 1));
+    }
+
+    @Test
+    void shouldForgetLatencyAfterIdle() {
+        properties.setTargetLatency(Duration.ofMillis(100));
+        properties.setIdleReset(Duration.ofSeconds(5));
+        LoadShedder shedder = new LoadShedder(properties);
+
+        shedder.record(1000 * MS, 0);
+
+        assertThat(shedder.shedRatio(TimeUnit.SECONDS.toNanos(6)), equalTo(0.0));
+    }
+
+    @Test
+    void shouldNotShedWhenDisabled() {
+        properties.setEnabled(false);
+        properties.setTargetLatency(Duration.ofMillis(100));
+        LoadShedder shedder = new LoadShedder(properties);
+
+        shedder.record(1000 * MS, 0);
+
+        assertThat(shedder.shedRatio(0), equalTo(0.0));
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemImporter;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.service.Header.USER_ID;
+
+@WebMvcTest(value = ItemController.class, properties = {
+        "shareit-gateway.rate-limit.routes[0].method=GET",
+        "shareit-gateway.rate-limit.routes[0].path=/items/search",
+        "shareit-gateway.rate-limit.routes[0].per-second=0.01",
+        "shareit-gateway.rate-limit.routes[0].burst=2"
+})
+@AutoConfigureMockMvc
+class RateLimitInterceptorTest {
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private ItemImporter itemImporter;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void shouldRejectUserOverRouteLimit() throws Exception {
+        when(itemClient.search(anyLong(), anyString(), any(), anyInt(), anyInt()))
+                .thenReturn(new ResponseEntity<>(List.of(), HttpStatus.OK));
+
+        mvc.perform(get("/items/search").param("text", "дрель").header(USER_ID, 1))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/search").param("text", "отвёртка").header(USER_ID, 1))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/search").param("text", "пила").header(USER_ID, 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, not(emptyOrNullString())))
+                .andExpect(jsonPath("$.error", containsString("/items/search")));
+        // у другого пользователя своя корзина
+        mvc.perform(get("/items/search").param("text", "пила").header(USER_ID, 2))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(3))
+                .search(anyLong(), anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldUseDefaultLimitForOtherRoutes() throws Exception {
+        when(itemClient.getItemById(anyLong(), anyLong()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(get("/items/1").header(USER_ID, 3))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void shouldNotChargeAsyncRedispatch() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit(0.01, 1));
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(properties, new RateLimiter(10, Duration.ofMinutes(1)),
+                new LoadShedder(properties.getShedding()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.addHeader(USER_ID, 4);
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()), is(true));
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()), is(true));
+        request.setDispatcherType(DispatcherType.REQUEST);
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+    }
+}
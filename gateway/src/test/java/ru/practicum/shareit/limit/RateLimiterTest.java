@@ -0,0 +1,53 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, 2);
+
+    @Test
+    void shouldKeepNoMoreThanMaxBuckets() {
+        RateLimiter limiter = new RateLimiter(100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire("user-" + i, limit, 0), equalTo(0L));
+        }
+
+        assertThat(limiter.size(), lessThanOrEqualTo(100L));
+    }
+
+    @Test
+    void shouldForgetIdleBucketsAfterRefillTime() {
+        AtomicLong time = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(100, limit.refillTime(), time::get);
+
+        limiter.tryAcquire("user", limit, 0);
+        limiter.tryAcquire("user", limit, 0);
+        assertThat(limiter.tryAcquire("user", limit, 0), equalTo(SECOND));
+
+        time.set(2 * SECOND);
+        assertThat(limiter.size(), equalTo(0L));
+        assertThat(limiter.tryAcquire("user", limit, 2 * SECOND), equalTo(0L));
+    }
+
+    @Test
+    void shouldUseLongestRefillTimeAsIdleTimeout() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPerSecond(0.5);
+        route.setBurst(10);
+        properties.getRoutes().add(route);
+
+        assertThat(properties.maxRefillTime(), equalTo(Duration.ofSeconds(20)));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstThenReject() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(0), equalTo(SECOND));
+    }
+
+    @Test
+    void shouldRefillWithTime() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertThat(bucket.tryAcquire(0), equalTo(0L));
+        assertThat(bucket.tryAcquire(SECOND / 4), greaterThan(0L));
+        assertThat(bucket.tryAcquire(SECOND / 2), equalTo(0L));
+    }
+
+    @Test
+    void shouldNotGiveMoreThanBurstToConcurrentCallers() throws Exception {
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(0.001, 100, 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(granted.get(), equalTo(100));
+    }
+}
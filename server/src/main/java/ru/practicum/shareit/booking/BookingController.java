@@ -2,9 +2,13 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -12,6 +16,7 @@ import ru.practicum.shareit.exception.BadParameterException;
 
 import java.util.List;
 
+import static ru.practicum.shareit.service.Header.NEXT_CURSOR;
 import static ru.practicum.shareit.service.Header.USER_ID;
 
 @Slf4j
@@ -32,6 +37,14 @@ public class BookingController {
         return bookingService.saveBooking(userId, bookingDto, BookingStatus.WAITING);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDtoOut> saveBookings(@RequestHeader(USER_ID) long userId,
+                                            @RequestBody List<BookingDtoIn> bookingDtos) {
+        log.info("В метод saveBookings передан userId {}, количество бронирований {}", userId, bookingDtos.size());
+
+        return bookingService.saveBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoOut bookingApprove(@RequestHeader(USER_ID) long userId,
                                         @PathVariable long bookingId,
@@ -42,6 +55,14 @@ public class BookingController {
         return bookingService.bookingApprove(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> bookingApproveAll(@RequestHeader(USER_ID) long userId,
+                                                            @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("В метод bookingApproveAll передан userId {}, количество решений {}", userId, decisions.size());
+
+        return bookingService.bookingApproveAll(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoOut findBookingById(@RequestHeader(USER_ID) long userId, @PathVariable long bookingId) {
         log.info("В метод findBookingById передан userId {}, bookingId {}", userId, bookingId);
@@ -50,30 +71,57 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoOut> findUserBookings(@RequestHeader(USER_ID) long userId,
-                                                @RequestParam(defaultValue = "all") String state,
-                                                @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<List<BookingDtoOut>> findUserBookings(@RequestHeader(USER_ID) long userId,
+                                                                @RequestParam(defaultValue = "all") String state,
+                                                                @RequestParam(defaultValue = "0") int from,
+                                                                @RequestParam(defaultValue = "20") int size,
+                                                                @RequestParam(required = false) String cursor) {
         log.info("В метод findUserBookings передан userId {}, статус бронирования для поиска {}," +
-                " индекс первого элемента {},количество элементов на странице {}", userId, state, from, size);
+                " индекс первого элемента {},количество элементов на странице {}, курсор {}",
+                userId, state, from, size, cursor);
 
         BookingState enumState = BookingState.from(state)
                 .orElseThrow(() -> new BadParameterException("Unknown state: " + state));
 
-        return bookingService.findUserBookings(userId, enumState, from, size);
+        // с курсором страница ищется без OFFSET, from игнорируется
+        List<BookingDtoOut> bookings = cursor == null
+                ? bookingService.findUserBookings(userId, enumState, from, size)
+                : bookingService.findUserBookings(userId, enumState, toCursor(cursor), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOut> findOwnerBookings(@RequestHeader(USER_ID) long userId,
-                                                 @RequestParam(defaultValue = "all") String state,
-                                                 @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<List<BookingDtoOut>> findOwnerBookings(@RequestHeader(USER_ID) long userId,
+                                                                 @RequestParam(defaultValue = "all") String state,
+                                                                 @RequestParam(defaultValue = "0") int from,
+                                                                 @RequestParam(defaultValue = "20") int size,
+                                                                 @RequestParam(required = false) String cursor) {
         log.info("В метод findOwnerBookings передан userId {}, статус бронирования для поиска {}, " +
-                "индекс первого элемента {}, количество элементов на странице {}", userId, state, from, size);
+                "индекс первого элемента {}, количество элементов на странице {}, курсор {}",
+                userId, state, from, size, cursor);
 
         BookingState enumState = BookingState.from(state)
                 .orElseThrow(() -> new BadParameterException("Unknown state: " + state));
 
-        return bookingService.findOwnerBookings(userId, enumState, from, size);
+        // с курсором страница ищется без OFFSET, from игнорируется
+        List<BookingDtoOut> bookings = cursor == null
+                ? bookingService.findOwnerBookings(userId, enumState, from, size)
+                : bookingService.findOwnerBookings(userId, enumState, toCursor(cursor), size);
+        return withNextCursor(bookings, size);
+    }
+
+    private static BookingCursor toCursor(String cursor) {
+        return BookingCursor.from(cursor)
+                .orElseThrow(() -> new BadParameterException("Unknown cursor: " + cursor));
+    }
+
+    // полная страница — возможно, есть следующая: курсор на неё отдаётся заголовком в обоих режимах
+    private static ResponseEntity<List<BookingDtoOut>> withNextCursor(List<BookingDtoOut> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            BookingDtoOut last = bookings.get(bookings.size() - 1);
+            response.header(NEXT_CURSOR, new BookingCursor(last.getStart(), last.getId()).toString());
+        }
+        return response.body(bookings);
     }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+@Configuration
+@EnableConfigurationProperties(BookingCalendarProperties.class)
+public class BookingCalendarConfig {
+
+    @Bean
+    public ItemBookingCalendar itemBookingCalendar(BookingRepository bookingRepository,
+                                                   BookingCalendarProperties properties) {
+        return new ItemBookingCalendar(bookingRepository, properties);
+    }
+}
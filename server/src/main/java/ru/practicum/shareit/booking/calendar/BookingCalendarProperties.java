@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.calendar;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.calendar")
+public class BookingCalendarProperties {
+
+    // сколько календарей вещей держать в памяти, сверх этого вытесняются редко запрашиваемые
+    private long maxItems = 10_000;
+
+    // страховка на случай изменений в обход сервиса, например прямо в базе
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
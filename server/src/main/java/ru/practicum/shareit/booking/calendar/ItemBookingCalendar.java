@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking.calendar;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.calendar.ItemCalendar.Period;
+import ru.practicum.shareit.booking.model.BookingSavedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+
+// календари занятости вещей: загружаются из базы при первом обращении к вещи и дальше обновляются
+// событиями бронирований после коммита; число вещей в памяти ограничено
+public class ItemBookingCalendar implements MeterBinder {
+
+    // бронирования, которые занимают вещь
+    public static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private static final String METRIC_NAME = "items.calendar";
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemCalendar> calendars;
+
+    public ItemBookingCalendar(BookingRepository bookingRepository, BookingCalendarProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxItems())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    // пересекается ли [start, end) с ожидающими или подтверждёнными бронированиями вещи
+    public boolean isBusy(long itemId, LocalDateTime start, LocalDateTime end) {
+        return calendar(itemId).overlaps(start, end);
+    }
+
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<PeriodDto> busy = getBusy(itemId, from, to);
+        return new ItemAvailabilityDto(itemId, from, to, busy, getFree(from, to, busy));
+    }
+
+    // календарь меняется только у загруженной вещи; пока календарь грузится, изменение ждёт загрузки,
+    // а повторное применение уже загруженного бронирования ничего не меняет
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingSaved(BookingSavedEvent event) {
+        Period period = new Period(event.getBookingId(), event.getStart(), event.getEnd(), event.getStatus());
+        calendars.asMap().computeIfPresent(event.getItemId(), (id, calendar) -> calendar.with(period));
+    }
+
+    // бронирования удаляются в базе каскадом вместе с вещью или пользователем
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        calendars.invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidateAll();
+    }
+
+    // для изменений в обход событий, например массовой загрузки или очистки таблиц
+    public void invalidateAll() {
+        calendars.invalidateAll();
+    }
+
+    public long size() {
+        calendars.cleanUp();
+        return calendars.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, calendars, METRIC_NAME);
+    }
+
+    private ItemCalendar calendar(long itemId) {
+        return calendars.get(itemId, id -> new ItemCalendar(bookingRepository
+                .findAllByItemIdAndStatusIn(id, BLOCKING_STATUSES).stream()
+                .map(view -> new Period(view.getId(), view.getStart(), view.getEnd(), view.getStatus()))
+                .collect(toList())));
+    }
+
+    // занятые промежутки внутри [from, to), пересекающиеся бронирования склеены в один промежуток
+    private List<PeriodDto> getBusy(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<PeriodDto> busy = new ArrayList<>();
+        for (Period period : calendar(itemId).between(from, to)) {
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            PeriodDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                busy.add(new PeriodDto(start, end));
+            }
+        }
+        return busy;
+    }
+
+    // свободные промежутки между занятыми, вместе с ними покрывают [from, to)
+    private static List<PeriodDto> getFree(LocalDateTime from, LocalDateTime to, List<PeriodDto> busy) {
+        List<PeriodDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (PeriodDto period : busy) {
+            if (period.getStart().isAfter(cursor)) {
+                free.add(new PeriodDto(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new PeriodDto(cursor, to));
+        }
+        return free;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.calendar;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// занятые промежутки одной вещи в массиве, отсортированном по началу; для каждого индекса хранится наибольший
+// конец среди промежутков до него включительно, поэтому пересечение проверяется двумя двоичными поисками
+// даже если промежутки пересекаются между собой. неизменяемый: изменение создаёт новый календарь
+class ItemCalendar {
+
+    private static final Comparator<Period> ORDER = Comparator.comparing(Period::getStart)
+            .thenComparingLong(Period::getBookingId);
+
+    private final Period[] periods;
+    private final LocalDateTime[] maxEnds;
+
+    ItemCalendar(List<Period> periods) {
+        this.periods = periods.toArray(new Period[0]);
+        Arrays.sort(this.periods, ORDER);
+        this.maxEnds = new LocalDateTime[this.periods.length];
+        for (int i = 0; i < this.periods.length; i++) {
+            LocalDateTime end = this.periods[i].getEnd();
+            maxEnds[i] = i == 0 || end.isAfter(maxEnds[i - 1]) ? end : maxEnds[i - 1];
+        }
+    }
+
+    // занят ли хотя бы один момент из [from, to)
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        int count = startingBefore(to);
+        return count > 0 && maxEnds[count - 1].isAfter(from);
+    }
+
+    // промежутки, пересекающие [from, to), по возрастанию начала
+    List<Period> between(LocalDateTime from, LocalDateTime to) {
+        List<Period> result = new ArrayList<>();
+        for (int i = firstEndingAfter(from), count = startingBefore(to); i < count; i++) {
+            if (periods[i].getEnd().isAfter(from)) {
+                result.add(periods[i]);
+            }
+        }
+        return result;
+    }
+
+    // то же бронирование заменяется, бронирование в незанимающем статусе убирается
+    ItemCalendar with(Period changed) {
+        List<Period> result = new ArrayList<>(periods.length + 1);
+        for (Period period : periods) {
+            if (period.getBookingId() != changed.getBookingId()) {
+                result.add(period);
+            }
+        }
+        if (ItemBookingCalendar.BLOCKING_STATUSES.contains(changed.getStatus())) {
+            result.add(changed);
+        }
+        return new ItemCalendar(result);
+    }
+
+    // сколько промежутков начинается раньше момента
+    private int startingBefore(LocalDateTime moment) {
+        int low = 0;
+        int high = periods.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (periods[mid].getStart().isBefore(moment)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // первый индекс, у которого наибольший конец позже момента: раньше него все промежутки уже закончились
+    private int firstEndingAfter(LocalDateTime moment) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid].isAfter(moment)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Period {
+
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final BookingStatus status;
+    }
+}
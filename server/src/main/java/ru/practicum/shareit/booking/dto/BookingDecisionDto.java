@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// решение владельца по одному бронированию в пакетном подтверждении
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookingDecisionDto {
+
+    private Long bookingId;
+    private Boolean approved;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+// итог решения: новый статус бронирования или причина, по которой статус не изменён
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookingDecisionResultDto {
+
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+}
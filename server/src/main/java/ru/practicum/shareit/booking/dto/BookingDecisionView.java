@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+// бронирование вместе с владельцем вещи для пакетного подтверждения, без загрузки сущностей
+public interface BookingDecisionView extends BookingPeriodView {
+
+    Long getItemId();
+
+    Long getOwnerId();
+}
@@ -39,6 +39,16 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDtoForItem toItemBookingDto(ItemBookingView booking) {
+        return new BookingDtoForItem(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getBookerId(),
+                booking.getStatus()
+        );
+    }
+
     public static Booking toBooking(BookingDtoIn bookingDto, User user, Item item) {
         return new Booking(
                 bookingDto.getId(),
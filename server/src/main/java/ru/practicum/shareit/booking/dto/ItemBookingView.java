@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// строка нативного запроса последнего и следующего бронирования вещи, без загрузки сущностей
+public interface ItemBookingView {
+
+    Long getItemId();
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getBookerId();
+
+    BookingStatus getStatus();
+}
@@ -4,7 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.service.PooledSequenceGenerator;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -19,7 +21,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledSequenceGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceGenerator.NAME, strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// позиция в списке бронирований: начало и id последнего полученного бронирования,
+// клиенту отдаётся непрозрачной строкой в заголовке X-Next-Cursor
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+
+    private final LocalDateTime start;
+    private final long id;
+
+    public static Optional<BookingCursor> from(String stringCursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(stringCursor), UTF_8);
+            int comma = value.lastIndexOf(',');
+            if (comma < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new BookingCursor(LocalDateTime.parse(value.substring(0, comma)),
+                    Long.parseLong(value.substring(comma + 1))));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((start + "," + id).getBytes(UTF_8));
+    }
+}
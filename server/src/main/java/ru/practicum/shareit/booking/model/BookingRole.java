@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.model;
+
+// чьи бронирования ищутся
+public enum BookingRole {
+    // Пользователь — арендатор
+    BOOKER,
+    // Пользователь — владелец вещи
+    OWNER
+}
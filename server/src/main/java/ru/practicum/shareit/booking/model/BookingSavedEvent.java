@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// бронирование создано или сменило статус
+@Getter
+@AllArgsConstructor
+public class BookingSavedEvent {
+
+    private final long bookingId;
+    private final long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+}
@@ -1,55 +1,51 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDecisionView;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    // поиск по заказчику
-    List<Booking> findBookingsByBookerIdOrderByStartDesc(Long bookerId, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStart(Long bookerId, LocalDateTime start,
-                                                                         LocalDateTime end, Pageable page);
-
-    List<Booking> findAllByBookerIdAndEndBeforeAndStatusOrderByStartDesc(Long userId, LocalDateTime dateTime,
-                                                                         BookingStatus status, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(long userId, LocalDateTime dateTime, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(long userId, BookingStatus status, Pageable page);
-
-    // поиск по хозяину вещи
-    List<Booking> findAllByItemUserIdOrderByStartDesc(Long ownerId, Pageable page);
-
-    List<Booking> findAllByItemUserIdAndStartBeforeAndEndAfterOrderByStart(Long ownerId, LocalDateTime start,
-                                                                           LocalDateTime end, Pageable page);
-
-    List<Booking> findAllByItemUserIdAndEndBeforeAndStatusOrderByStartDesc(Long ownerId, LocalDateTime end,
-                                                                           BookingStatus status, Pageable page);
-
-    List<Booking> findAllByItemUserIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start,
-                                                                   Pageable page);
-
-    List<Booking> findAllByItemUserIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable page);
-
-    // Поиск last и next booking для item
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(Long itemId, LocalDateTime start,
-                                                                               BookingStatus status);
-
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByStart(Long itemId, LocalDateTime start,
-                                                                          BookingStatus status);
-
-    List<Booking> findAllByItemUserIdAndItemIdInAndStartBeforeOrderByStartDesc(Long userId, List<Long> itemIds,
-                                                                               LocalDateTime start);
-
-    List<Booking> findAllByItemUserIdAndItemIdInAndStartAfterOrderByStart(Long itemId, List<Long> itemIds,
-                                                                          LocalDateTime start);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    // Поиск last и next booking для item: не больше одной строки каждого вида на вещь,
+    // каждая берётся из индекса (item_id, start_date) за одно обращение
+    @Query(value = "select b.item_id as itemId, b.id as id, b.start_date as start, b.end_date as \"end\", "
+            + "b.booker_id as bookerId, b.status as status "
+            + "from items i cross join lateral ("
+            + "(select * from bookings l where l.item_id = i.id and l.status = 'APPROVED' and l.start_date < ?2 "
+            + "order by l.start_date desc limit 1) "
+            + "union all "
+            + "(select * from bookings n where n.item_id = i.id and n.status = 'APPROVED' and n.start_date > ?2 "
+            + "order by n.start_date limit 1)) b "
+            + "where i.id in (?1)", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "select b.id as id, b.item_id as itemId, i.user_id as ownerId, b.start_date as start, "
+            + "b.end_date as \"end\", b.status as status "
+            + "from bookings b join items i on i.id = b.item_id "
+            + "where b.id in (?1)", nativeQuery = true)
+    List<BookingDecisionView> findDecisionViews(Collection<Long> ids);
+
+    // те из бронирований, что пересекаются с уже подтверждёнными бронированиями своих вещей
+    @Query(value = "select b.id from bookings b "
+            + "where b.id in (?1) and exists (select 1 from bookings a where a.item_id = b.item_id "
+            + "and a.status = 'APPROVED' and a.id <> b.id "
+            + "and a.start_date < b.end_date and a.end_date > b.start_date)", nativeQuery = true)
+    List<Long> findOverlappingApproved(Collection<Long> ids);
+
+    // все промежутки вещи для её календаря занятости
+    List<BookingPeriodView> findAllByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
+    boolean existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(Long itemId, Long bookingId,
+                                                                    BookingStatus status,
+                                                                    LocalDateTime end, LocalDateTime start);
 
     List<Booking> findAllByItemIdAndBookerIdAndStatusAndStartBeforeAndEndBefore(Long itemId, Long bookerId,
                                                                                 BookingStatus status,
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// списки бронирований арендатора и владельца строятся одним запросом для любой роли и состояния
+public interface BookingRepositoryCustom {
+
+    // страница, начиная с from-го бронирования (from округляется вниз до целого числа страниц)
+    List<BookingDtoOut> findPage(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                 int from, int size);
+
+    // страница бронирований после курсора (или первая, если курсора нет) без OFFSET
+    List<BookingDtoOut> findPageAfter(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                      BookingCursor after, int size);
+
+    // решения владельца одним UPDATE: approvedIds подтверждаются, остальные из ids отклоняются;
+    // меняются только ожидающие бронирования, возвращаются id изменённых
+    List<Long> decideWaiting(Collection<Long> ids, Collection<Long> approvedIds);
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// запрос всегда одной формы: бронирования с вещью и арендатором в одном select, фильтр по роли и состоянию,
+// сортировка по (start_date, id), которую дают индексы idx_bookings_booker_start_id и idx_bookings_item_start_id;
+// строки сразу собираются в BookingDtoOut, сущности не загружаются
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingDtoOut> findPage(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                        int from, int size) {
+        return toDtos(createQuery(role, userId, state, now, null)
+                .setFirstResult(from / size * size)
+                .setMaxResults(size)
+                .getResultList());
+    }
+
+    @Override
+    public List<BookingDtoOut> findPageAfter(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                             BookingCursor after, int size) {
+        return toDtos(createQuery(role, userId, state, now, after)
+                .setMaxResults(size)
+                .getResultList());
+    }
+
+    @Override
+    public List<Long> decideWaiting(Collection<Long> ids, Collection<Long> approvedIds) {
+        // пустой список в in () Postgres не принимает, поэтому без подтверждений CASE не нужен
+        String status = approvedIds.isEmpty()
+                ? "'REJECTED'"
+                : "case when id in (:approvedIds) then 'APPROVED' else 'REJECTED' end";
+        Query query = em.createNativeQuery("update bookings set status = " + status + " "
+                        + "where id in (:ids) and status = 'WAITING' returning id")
+                .setParameter("ids", ids);
+        if (!approvedIds.isEmpty()) {
+            query.setParameter("approvedIds", approvedIds);
+        }
+        List<?> changed = query.getResultList();
+        return changed.stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+    }
+
+    private TypedQuery<Tuple> createQuery(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                          BookingCursor after) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<BookingStatus> status = booking.get("status");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(role == BookingRole.OWNER
+                ? cb.equal(item.get("user").get("id"), userId)
+                : cb.equal(booker.get("id"), userId));
+        switch (state) {
+            case CURRENT:
+                where.add(cb.lessThan(start, now));
+                where.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                where.add(cb.lessThan(end, now));
+                where.add(cb.equal(status, BookingStatus.APPROVED));
+                break;
+            case FUTURE:
+                where.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                where.add(cb.equal(status, BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                where.add(cb.equal(status, BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        // текущие бронирования идут от ранних к поздним, остальные — наоборот
+        boolean ascending = state == BookingState.CURRENT;
+        if (after != null) {
+            // (start, id) дальше курсора в порядке сортировки; отдельное условие на дату задаёт границу поиска по индексу
+            where.add(ascending
+                    ? cb.greaterThanOrEqualTo(start, after.getStart())
+                    : cb.lessThanOrEqualTo(start, after.getStart()));
+            where.add(cb.or(
+                    ascending ? cb.greaterThan(start, after.getStart()) : cb.lessThan(start, after.getStart()),
+                    ascending ? cb.greaterThan(id, after.getId()) : cb.lessThan(id, after.getId())));
+        }
+        query.multiselect(id, start, end, status,
+                        item.get("id"), item.get("name"), item.get("description"), item.get("isAvailable"),
+                        item.get("request").get("id"),
+                        booker.get("id"), booker.get("name"), booker.get("email"))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(ascending ? List.of(cb.asc(start), cb.asc(id)) : List.of(cb.desc(start), cb.desc(id)));
+        return em.createQuery(query);
+    }
+
+    private static List<BookingDtoOut> toDtos(List<Tuple> rows) {
+        return rows.stream()
+                .map(row -> new BookingDtoOut(
+                        row.get(0, Long.class),
+                        row.get(1, LocalDateTime.class),
+                        row.get(2, LocalDateTime.class),
+                        new ItemDto(row.get(4, Long.class), row.get(5, String.class), row.get(6, String.class),
+                                row.get(7, Boolean.class), row.get(8, Long.class)),
+                        new UserDto(row.get(9, Long.class), row.get(10, String.class), row.get(11, String.class)),
+                        row.get(3, BookingStatus.class)))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
@@ -11,11 +14,19 @@ public interface BookingService {
 
     BookingDtoOut saveBooking(long userId, BookingDtoIn bookingDto, BookingStatus status);
 
+    List<BookingDtoOut> saveBookings(long userId, List<BookingDtoIn> bookingDtos);
+
     BookingDtoOut bookingApprove(long userId, long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> bookingApproveAll(long userId, List<BookingDecisionDto> decisions);
+
     BookingDtoOut findBookingById(long userId, long bookingId);
 
     List<BookingDtoOut> findUserBookings(long userId, BookingState state, int from, int size);
 
     List<BookingDtoOut> findOwnerBookings(long userId, BookingState state, int from, int size);
+
+    List<BookingDtoOut> findUserBookings(long userId, BookingState state, BookingCursor after, int size);
+
+    List<BookingDtoOut> findOwnerBookings(long userId, BookingState state, BookingCursor after, int size);
 }
@@ -1,17 +1,25 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionView;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingSavedEvent;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.BadParameterException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -21,8 +29,17 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Service
 @RequiredArgsConstructor
@@ -32,6 +49,9 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemBookingLocks itemLocks;
+    private final ItemBookingCalendar calendar;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -40,15 +60,60 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Предмета с ID " + bookingDto.getItemId()
                         + " не зарегистрировано"));
-        if (!item.getIsAvailable()) {
-            throw new BadParameterException("вещь недоступна для аренды");
-        }
-        if (userId == (item.getUser().getId())) {
-            throw new NotFoundException("ошибка: запрос аренды отправлен от владельца вещи");
-        }
+        checkBookable(userId, item);
         Booking booking = BookingMapper.toBooking(bookingDto, user, item);
         booking.setStatus(status);
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        if (!ItemBookingCalendar.BLOCKING_STATUSES.contains(status)) {
+            return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        }
+        // календарь обновляется после коммита, пока блокировка вещи ещё держится
+        itemLocks.lockUntilTransactionEnds(item.getId());
+        if (calendar.isBusy(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw periodTaken(item.getId());
+        }
+        return BookingMapper.toBookingDto(saveChecked(booking));
+    }
+
+    // пакет проверяется так же, как бронирования по одному, и сохраняется целиком одной пачкой вставок
+    // или не сохраняется вовсе; id из запроса не используются, бронирования всегда новые
+    @Override
+    @Transactional
+    public List<BookingDtoOut> saveBookings(long userId, List<BookingDtoIn> bookingDtos) {
+        User user = checkUser(userId);
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .map(BookingDtoIn::getItemId)
+                        .collect(toSet())).stream()
+                .collect(toMap(Item::getId, identity()));
+        itemLocks.lockAllUntilTransactionEnds(items.keySet());
+        Map<Long, List<Booking>> bookingsByItem = new HashMap<>();
+        List<Booking> bookings = new ArrayList<>(bookingDtos.size());
+        for (BookingDtoIn bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Предмета с ID " + bookingDto.getItemId() + " не зарегистрировано");
+            }
+            checkBookable(userId, item);
+            Booking booking = BookingMapper.toBooking(bookingDto, user, item);
+            booking.setId(null);
+            List<Booking> itemBookings = bookingsByItem.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+            if (calendar.isBusy(item.getId(), booking.getStart(), booking.getEnd()) || itemBookings.stream()
+                    .anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                            && other.getEnd().isAfter(booking.getStart()))) {
+                throw periodTaken(item.getId());
+            }
+            itemBookings.add(booking);
+            bookings.add(booking);
+        }
+        List<Booking> saved;
+        try {
+            saved = bookingRepository.saveAllAndFlush(bookings);
+        } catch (DataIntegrityViolationException e) {
+            throw new AlreadyExistException("Бронирования пакета пересекаются с уже подтверждёнными");
+        }
+        saved.forEach(this::publishSaved);
+        return saved.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(toList());
     }
 
     @Override
@@ -64,9 +129,17 @@ public class BookingServiceImpl implements BookingService {
         }
         if (booking.getStatus() == BookingStatus.WAITING) {
             if (approved) {
+                Long itemId = booking.getItem().getId();
+                itemLocks.lockUntilTransactionEnds(itemId);
+                if (bookingRepository.existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(itemId, bookingId,
+                        BookingStatus.APPROVED, booking.getEnd(), booking.getStart())) {
+                    throw periodTaken(itemId);
+                }
                 booking.setStatus(BookingStatus.APPROVED);
+                return BookingMapper.toBookingDto(saveChecked(booking));
             } else {
                 booking.setStatus(BookingStatus.REJECTED);
+                publishSaved(booking);
             }
         } else {
             throw new BadParameterException("У запроса на аренду с ID " + bookingId +
@@ -75,6 +148,73 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDto(booking);
     }
 
+    // все решения одной транзакцией: владение и статусы проверяются одним запросом,
+    // статусы меняются одним UPDATE; ошибка по одному бронированию не мешает остальным
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> bookingApproveAll(long userId, List<BookingDecisionDto> decisions) {
+        checkUser(userId);
+        Map<Long, BookingDecisionView> bookings = bookingRepository.findDecisionViews(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .collect(toSet())).stream()
+                .collect(toMap(BookingDecisionView::getId, identity()));
+
+        Map<Long, BookingDecisionResultDto> results = new LinkedHashMap<>();
+        List<BookingDecisionView> approvals = new ArrayList<>();
+        List<Long> accepted = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            long bookingId = decision.getBookingId();
+            BookingDecisionView booking = bookings.get(bookingId);
+            // на повтор того же бронирования в пакете действует первое решение
+            if (results.containsKey(bookingId)) {
+                continue;
+            }
+            String error = null;
+            if (booking == null) {
+                error = "Запроса на аренду с ID " + bookingId + " не зарегистрировано";
+            } else if (booking.getOwnerId() != userId) {
+                error = "Пользователь ID " + userId + " не является владельцем вещи с ID " + booking.getItemId();
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                error = "У запроса на аренду с ID " + bookingId + " нельзя поменять статус. Текущий статус: "
+                        + booking.getStatus();
+            }
+            if (error != null) {
+                results.put(bookingId, failed(bookingId, booking, error));
+                continue;
+            }
+            results.put(bookingId, null);
+            accepted.add(bookingId);
+            if (decision.getApproved()) {
+                approvals.add(booking);
+            }
+        }
+
+        Set<Long> approvedIds = approve(approvals, results);
+        accepted.removeIf(bookingId -> results.get(bookingId) != null);
+        if (accepted.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+        Set<Long> changed;
+        try {
+            changed = Set.copyOf(bookingRepository.decideWaiting(accepted, approvedIds));
+        } catch (DataIntegrityViolationException e) {
+            throw new AlreadyExistException("Подтверждённые бронирования пересекаются с уже подтверждёнными");
+        }
+        for (Long bookingId : accepted) {
+            BookingDecisionView booking = bookings.get(bookingId);
+            if (!changed.contains(bookingId)) {
+                results.put(bookingId, failed(bookingId, null,
+                        "Статус запроса на аренду с ID " + bookingId + " изменился во время обработки"));
+                continue;
+            }
+            BookingStatus status = approvedIds.contains(bookingId) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            results.put(bookingId, new BookingDecisionResultDto(bookingId, status, null));
+            eventPublisher.publishEvent(new BookingSavedEvent(bookingId, booking.getItemId(), booking.getStart(),
+                    booking.getEnd(), status));
+        }
+        return new ArrayList<>(results.values());
+    }
+
     @Override
     public BookingDtoOut findBookingById(long userId, long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -93,110 +233,94 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDtoOut> findUserBookings(long userId, BookingState state, int from, int size) {
         checkUser(userId);
 
-        Pageable page = PageRequest.of(from / size, size);
-
-        List<BookingDtoOut> bookings = new ArrayList<>();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findBookingsByBookerIdOrderByStartDesc(userId, page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStart(userId,
-                                LocalDateTime.now(), LocalDateTime.now(), page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBeforeAndStatusOrderByStartDesc(userId,
-                                LocalDateTime.now(), BookingStatus.APPROVED, page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId,
-                                LocalDateTime.now(), page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING,
-                                page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED,
-                                page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            default:
-                throw new NotFoundException("Некорректно выбран тип бронирования" + state);
-        }
-        return bookings;
+        return bookingRepository.findPage(BookingRole.BOOKER, userId, state, LocalDateTime.now(), from, size);
     }
 
     @Override
     public List<BookingDtoOut> findOwnerBookings(long userId, BookingState state, int from, int size) {
         checkUser(userId);
 
-        Pageable page = PageRequest.of(from / size, size);
-
-        List<BookingDtoOut> bookings = new ArrayList<>();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemUserIdOrderByStartDesc(userId, page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemUserIdAndStartBeforeAndEndAfterOrderByStart(userId,
-                                LocalDateTime.now(), LocalDateTime.now(), page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemUserIdAndEndBeforeAndStatusOrderByStartDesc(userId,
-                                LocalDateTime.now(), BookingStatus.APPROVED, page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemUserIdAndStartAfterOrderByStartDesc(userId,
-                                LocalDateTime.now(), page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItemUserIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING,
-                                page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItemUserIdAndStatusOrderByStartDesc(userId,
-                                BookingStatus.REJECTED, page)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            default:
-                throw new NotFoundException("Некорректно выбран тип бронирования" + state);
-        }
-        return bookings;
+        return bookingRepository.findPage(BookingRole.OWNER, userId, state, LocalDateTime.now(), from, size);
+    }
+
+    @Override
+    public List<BookingDtoOut> findUserBookings(long userId, BookingState state, BookingCursor after, int size) {
+        checkUser(userId);
+
+        return bookingRepository.findPageAfter(BookingRole.BOOKER, userId, state, LocalDateTime.now(), after, size);
+    }
+
+    @Override
+    public List<BookingDtoOut> findOwnerBookings(long userId, BookingState state, BookingCursor after, int size) {
+        checkUser(userId);
+
+        return bookingRepository.findPageAfter(BookingRole.OWNER, userId, state, LocalDateTime.now(), after, size);
+    }
+
+    // оставляет подтверждения, которые не пересекаются ни с подтверждёнными, ни друг с другом;
+    // остальным записывает ошибку. раньше в пакете — раньше в очереди
+    private Set<Long> approve(List<BookingDecisionView> approvals, Map<Long, BookingDecisionResultDto> results) {
+        if (approvals.isEmpty()) {
+            return Set.of();
+        }
+        itemLocks.lockAllUntilTransactionEnds(approvals.stream()
+                .map(BookingDecisionView::getItemId)
+                .collect(toSet()));
+        Set<Long> overlapping = Set.copyOf(bookingRepository.findOverlappingApproved(approvals.stream()
+                .map(BookingDecisionView::getId)
+                .collect(toList())));
+        Map<Long, List<BookingDecisionView>> approvedByItem = new HashMap<>();
+        Set<Long> approvedIds = new HashSet<>();
+        for (BookingDecisionView booking : approvals) {
+            List<BookingDecisionView> itemApproved = approvedByItem.computeIfAbsent(booking.getItemId(),
+                    itemId -> new ArrayList<>());
+            boolean overlaps = overlapping.contains(booking.getId()) || itemApproved.stream()
+                    .anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                            && other.getEnd().isAfter(booking.getStart()));
+            if (overlaps) {
+                results.put(booking.getId(), failed(booking.getId(), booking,
+                        periodTaken(booking.getItemId()).getMessage()));
+            } else {
+                itemApproved.add(booking);
+                approvedIds.add(booking.getId());
+            }
+        }
+        return approvedIds;
+    }
+
+    private static BookingDecisionResultDto failed(long bookingId, BookingDecisionView booking, String error) {
+        return new BookingDecisionResultDto(bookingId, booking == null ? null : booking.getStatus(), error);
+    }
+
+    private static void checkBookable(long userId, Item item) {
+        if (!item.getIsAvailable()) {
+            throw new BadParameterException("вещь недоступна для аренды");
+        }
+        if (userId == (item.getUser().getId())) {
+            throw new NotFoundException("ошибка: запрос аренды отправлен от владельца вещи");
+        }
+    }
+
+    // подтверждённые бронирования, сохранённые в обход блокировок (другим экземпляром сервера),
+    // отсекает ограничение ex_bookings_item_period; ошибка нужна сейчас, а не при коммите
+    private Booking saveChecked(Booking booking) {
+        Booking saved;
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw periodTaken(booking.getItem().getId());
+        }
+        publishSaved(saved);
+        return saved;
+    }
+
+    private void publishSaved(Booking booking) {
+        eventPublisher.publishEvent(new BookingSavedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus()));
+    }
+
+    private static AlreadyExistException periodTaken(long itemId) {
+        return new AlreadyExistException("Вещь с ID " + itemId + " уже забронирована на это время");
     }
 
     private User checkUser(long userId) {
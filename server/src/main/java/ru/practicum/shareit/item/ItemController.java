@@ -2,15 +2,29 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.BadParameterException;
 import ru.practicum.shareit.item.dto.CommentDtoIn;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoDated;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.model.CommentCursor;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
 import static ru.practicum.shareit.service.Header.USER_ID;
 
 @Slf4j
@@ -38,11 +52,23 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "fulltext") String mode,
                                 @RequestParam(defaultValue = "0") int from,
                                 @RequestParam(defaultValue = "20") int size) {
-        log.info("В метод search передан text: '{}', индекс первого элемента {}, количество элементов на " +
-                "странице {}", text, from, size);
-        return itemService.search(text, from, size);
+        log.info("В метод search передан text: '{}', режим поиска {}, индекс первого элемента {}, количество " +
+                "элементов на странице {}", text, mode, from, size);
+
+        SearchMode searchMode = SearchMode.from(mode)
+                .orElseThrow(() -> new BadParameterException("Unknown search mode: " + mode));
+
+        return itemService.search(text, searchMode, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") int size) {
+        log.info("В метод suggest передан prefix: '{}', количество подсказок {}", prefix, size);
+        return itemService.suggest(prefix, size);
     }
 
     @PostMapping()
@@ -52,6 +78,21 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createAll(@RequestHeader(USER_ID) long userId, @RequestBody List<ItemDto> itemDtos) {
+        log.info("В метод createAll передан userId {}, количество вещей {}", userId, itemDtos.size());
+        return itemService.createItems(userId, itemDtos);
+    }
+
+    // тело читается построчно по мере поступления, в памяти только текущий пакет строк
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportReportDto importItems(@RequestHeader(USER_ID) long userId, InputStream body) throws IOException {
+        log.info("В метод importItems передан userId {}", userId);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return itemService.importItems(userId, lines.lines());
+        }
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDtoOut saveComment(@RequestHeader(USER_ID) long userId,
                                      @PathVariable long itemId,
@@ -61,6 +102,27 @@ public class ItemController {
         return itemService.saveComment(userId, itemId, comment);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDtoOut> getComments(@PathVariable long itemId,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        log.info("В метод getComments передан itemId {}, после отзыва '{}', количество отзывов {}",
+                itemId, after, limit);
+
+        CommentCursor cursor = after == null ? null : CommentCursor.from(after)
+                .orElseThrow(() -> new BadParameterException("Unknown comments cursor: " + after));
+
+        return itemService.getComments(itemId, cursor, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+        log.info("В метод getAvailability передан itemId {}, период с {} по {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto update(@RequestHeader(USER_ID) long userId,
                           @PathVariable long id,
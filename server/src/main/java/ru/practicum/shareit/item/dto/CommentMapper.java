@@ -31,4 +31,14 @@ public class CommentMapper {
                 comment.getCreated()
         );
     }
+
+    public static CommentDtoOut toCommentDto(CommentView comment, ItemDto item) {
+        return new CommentDtoOut(
+                comment.getId(),
+                comment.getText(),
+                item,
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
 }
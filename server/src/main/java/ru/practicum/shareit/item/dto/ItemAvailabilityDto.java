@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// занятые и свободные промежутки вещи внутри [from, to), по возрастанию времени
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ItemAvailabilityDto {
+
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<PeriodDto> busy;
+    private List<PeriodDto> free;
+}
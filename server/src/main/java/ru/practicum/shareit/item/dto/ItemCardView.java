@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// строка запроса карточки вещи: вещь, число отзывов, последнее и следующее подтверждённое бронирование;
+// поля бронирований пустые, если бронирования нет или карточку смотрит не владелец
+public interface ItemCardView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getLastId();
+
+    LocalDateTime getLastStart();
+
+    LocalDateTime getLastEnd();
+
+    Long getLastBookerId();
+
+    BookingStatus getLastStatus();
+
+    Long getNextId();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+
+    Long getNextBookerId();
+
+    BookingStatus getNextStatus();
+
+    Long getCommentsCount();
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+// отзыв из пачки отзывов нескольких вещей: к какой вещи относится и сколько всего отзывов у этой вещи
+public interface ItemCommentView extends CommentView {
+
+    Long getItemId();
+
+    Long getCommentsCount();
+}
@@ -21,5 +21,7 @@ public class ItemDtoDated {
     private Boolean available;
     private BookingDtoForItem lastBooking;
     private BookingDtoForItem nextBooking;
+    // только последние отзывы, остальные — через GET /items/{id}/comments
     private List<CommentDtoOut> comments = new ArrayList<>();
+    private Long commentsCount;
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// строка импорта, которая не стала вещью, и причина
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ItemImportErrorDto {
+
+    private long line;
+    private String error;
+}
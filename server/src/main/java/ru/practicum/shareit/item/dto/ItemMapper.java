@@ -26,6 +26,14 @@ public class ItemMapper {
                                          BookingDtoForItem lastBooking,
                                          BookingDtoForItem nextBooking,
                                          List<CommentDtoOut> comments) {
+        return toItemDto(item, lastBooking, nextBooking, comments, comments.size());
+    }
+
+    public static ItemDtoDated toItemDto(Item item,
+                                         BookingDtoForItem lastBooking,
+                                         BookingDtoForItem nextBooking,
+                                         List<CommentDtoOut> comments,
+                                         long commentsCount) {
         return new ItemDtoDated(
                 item.getId(),
                 item.getName(),
@@ -33,7 +41,33 @@ public class ItemMapper {
                 item.getIsAvailable(),
                 lastBooking,
                 nextBooking,
-                comments
+                comments,
+                commentsCount
+        );
+    }
+
+    public static ItemDto toItemDto(ItemCardView card) {
+        return new ItemDto(
+                card.getId(),
+                card.getName(),
+                card.getDescription(),
+                card.getAvailable(),
+                card.getRequestId()
+        );
+    }
+
+    public static ItemDtoDated toItemDto(ItemCardView card, List<CommentDtoOut> comments) {
+        return new ItemDtoDated(
+                card.getId(),
+                card.getName(),
+                card.getDescription(),
+                card.getAvailable(),
+                card.getLastId() != null ? new BookingDtoForItem(card.getLastId(), card.getLastStart(),
+                        card.getLastEnd(), card.getLastBookerId(), card.getLastStatus()) : null,
+                card.getNextId() != null ? new BookingDtoForItem(card.getNextId(), card.getNextStart(),
+                        card.getNextEnd(), card.getNextBookerId(), card.getNextStatus()) : null,
+                comments,
+                card.getCommentsCount()
         );
     }
 
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import ru.practicum.shareit.service.PooledSequenceGenerator;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -18,7 +20,8 @@ import java.time.LocalDateTime;
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledSequenceGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceGenerator.NAME, strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
     @Column(nullable = false, length = 500)
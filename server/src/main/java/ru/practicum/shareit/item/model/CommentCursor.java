@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+// позиция в ленте отзывов: дата создания и id последнего полученного отзыва, в запросе — "created,id"
+@Getter
+@AllArgsConstructor
+public class CommentCursor {
+
+    private final LocalDateTime created;
+    private final long id;
+
+    public static Optional<CommentCursor> from(String stringCursor) {
+        int comma = stringCursor.lastIndexOf(',');
+        if (comma < 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new CommentCursor(LocalDateTime.parse(stringCursor.substring(0, comma).strip()),
+                    Long.parseLong(stringCursor.substring(comma + 1).strip())));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return created + "," + id;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemDeletedEvent {
+
+    private final long itemId;
+}
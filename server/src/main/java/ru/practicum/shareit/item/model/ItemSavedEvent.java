@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+// вещь создана или изменена
+@Getter
+@AllArgsConstructor
+public class ItemSavedEvent {
+
+    private final long ownerId;
+    private final ItemDto item;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.model;
+
+import java.util.Optional;
+
+public enum SearchMode {
+    FULLTEXT,
+    TRIGRAM;
+
+    public static Optional<SearchMode> from(String stringMode) {
+        for (SearchMode value : SearchMode.values()) {
+            if (value.name().equals(stringMode.toUpperCase())) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -1,13 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemCommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemUserIdInOrderByCreatedDesc(List<Long> userIds);
+    // не больше limit последних отзывов каждой вещи и общее число её отзывов, одним запросом для всей страницы вещей
+    @Query(value = "select c.item_id as itemId, c.id as id, c.text as text, u.name as authorName, " +
+            "c.created_date as created, c.comments_count as commentsCount " +
+            "from (select c.*, " +
+            "row_number() over (partition by c.item_id order by c.created_date desc, c.id desc) as position, " +
+            "count(*) over (partition by c.item_id) as comments_count " +
+            "from comments c where c.item_id in (?1)) c " +
+            "join users u on u.id = c.author_id " +
+            "where c.position <= ?2 " +
+            "order by c.item_id, c.created_date desc, c.id desc",
+            nativeQuery = true)
+    List<ItemCommentView> findLatestByItemIdIn(Collection<Long> itemIds, int limit);
 
-    List<Comment> findAllByItemIdOrderByCreatedDesc(Long itemId);
+    // последние отзывы вещи с именами авторов (индекс idx_comments_item_created_id)
+    @Query(value = "select c.id as id, c.text as text, u.name as authorName, c.created_date as created " +
+            "from comments c join users u on u.id = c.author_id " +
+            "where c.item_id = ?1 " +
+            "order by c.created_date desc, c.id desc " +
+            "limit ?2",
+            nativeQuery = true)
+    List<CommentView> findLatestByItemId(long itemId, int limit);
+
+    // следующая страница ленты отзывов после отзыва (created, id): продолжение чтения того же индекса
+    @Query(value = "select c.id as id, c.text as text, u.name as authorName, c.created_date as created " +
+            "from comments c join users u on u.id = c.author_id " +
+            "where c.item_id = ?1 and (c.created_date, c.id) < (?2, ?3) " +
+            "order by c.created_date desc, c.id desc " +
+            "limit ?4",
+            nativeQuery = true)
+    List<CommentView> findLatestByItemIdBefore(long itemId, LocalDateTime created, long id, int limit);
 }
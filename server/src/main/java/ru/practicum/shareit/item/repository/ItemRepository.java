@@ -3,17 +3,53 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemCardView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
-    @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')) " +
-            "and i.isAvailable = true ")
-    List<Item> findByNameOrDescription(String text, Pageable page);
+    // полнотекстовый поиск по индексу idx_items_search_vector, самые подходящие вещи первыми
+    @Query(value = "select i.* from items i, websearch_to_tsquery('russian', ?1) q " +
+            "where i.is_available = true " +
+            "and i.search_vector @@ q " +
+            "order by ts_rank(i.search_vector, q) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailable(String text, Pageable page);
+
+    // поиск по триграммам (индексы idx_items_name_trgm и idx_items_description_trgm): подстрока или похожее слово,
+    // порог похожести для <% задаётся pg_trgm.word_similarity_threshold, совпадение в названии важнее описания
+    @Query(value = "select i.* from items i " +
+            "where i.is_available = true " +
+            "and (i.name ilike ?2 or i.description ilike ?2 or ?1 <% i.name or ?1 <% i.description) " +
+            "order by greatest(word_similarity(?1, i.name), 0.4 * word_similarity(?1, i.description)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailableBySimilarity(String text, String pattern, Pageable page);
+
+    // карточка вещи за одно обращение: проверка пользователя, вещь, число отзывов и, если он владелец, ближайшие
+    // подтверждённые бронирования (индекс idx_bookings_item_start_approved);
+    // нет строки — нет пользователя, пустой id — нет вещи
+    @Query(value = "select i.id as id, i.name as name, i.description as description, " +
+            "i.is_available as available, i.request_id as requestId, " +
+            "l.id as lastId, l.start_date as lastStart, l.end_date as lastEnd, " +
+            "l.booker_id as lastBookerId, l.status as lastStatus, " +
+            "n.id as nextId, n.start_date as nextStart, n.end_date as nextEnd, " +
+            "n.booker_id as nextBookerId, n.status as nextStatus, " +
+            "(select count(*) from comments c where c.item_id = i.id) as commentsCount " +
+            "from users u " +
+            "left join items i on i.id = ?2 " +
+            "left join lateral (select * from bookings b " +
+            "where b.item_id = i.id and i.user_id = u.id and b.status = 'APPROVED' and b.start_date < ?3 " +
+            "order by b.start_date desc limit 1) l on true " +
+            "left join lateral (select * from bookings b " +
+            "where b.item_id = i.id and i.user_id = u.id and b.status = 'APPROVED' and b.start_date > ?3 " +
+            "order by b.start_date limit 1) n on true " +
+            "where u.id = ?1",
+            nativeQuery = true)
+    Optional<ItemCardView> findCard(long userId, long itemId, LocalDateTime now);
 
     List<Item> findAllItemsByUserIdOrderById(Long userId, Pageable page);
 
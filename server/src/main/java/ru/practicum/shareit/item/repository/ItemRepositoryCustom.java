@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+// массовая загрузка вещей в обход Hibernate
+public interface ItemRepositoryCustom {
+
+    // вещи владельца одним COPY; возвращает выданные id в порядке items
+    List<Long> copyItems(long ownerId, List<ItemDto> items);
+}
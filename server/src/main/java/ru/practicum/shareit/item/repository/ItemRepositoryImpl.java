@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// id берутся из items_id_seq теми же блоками, что выдаёт PooledSequenceGenerator: значение nextval — начало
+// блока длиной INCREMENT BY, поэтому id не пересекаются с выданными Hibernate; сами строки идут одним COPY
+// в формате CSV, search_vector считается базой
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final String SEQUENCE = "items_id_seq";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional
+    public List<Long> copyItems(long ownerId, List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            List<Long> ids = allocateIds(connection, items.size());
+            StringBuilder rows = new StringBuilder();
+            for (int i = 0; i < items.size(); i++) {
+                ItemDto item = items.get(i);
+                rows.append(ids.get(i)).append(',')
+                        .append(quote(item.getName())).append(',')
+                        .append(quote(item.getDescription())).append(',')
+                        .append(ownerId).append(',')
+                        .append(item.getAvailable()).append(',')
+                        // пустое поле без кавычек в CSV-формате COPY — NULL
+                        .append(item.getRequestId() == null ? "" : item.getRequestId())
+                        .append('\n');
+            }
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY items (id, name, description, user_id, is_available, request_id) "
+                                + "FROM STDIN (FORMAT csv)",
+                        new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Не удалось передать вещи в COPY", e);
+            }
+            return ids;
+        });
+    }
+
+    private static List<Long> allocateIds(Connection connection, int count) throws SQLException {
+        long increment;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT increment_by FROM pg_sequences "
+                + "WHERE schemaname = current_schema() AND sequencename = '" + SEQUENCE + "'");
+             ResultSet result = statement.executeQuery()) {
+            result.next();
+            increment = result.getLong(1);
+        }
+        List<Long> ids = new ArrayList<>(count);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval('" + SEQUENCE + "') FROM generate_series(1, ?)")) {
+            statement.setLong(1, (count + increment - 1) / increment);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next() && ids.size() < count) {
+                    long start = result.getLong(1);
+                    for (long id = start; id < start + increment && ids.size() < count; id++) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, SearchMode mode, int from, int size) {
+        Pageable page = PageRequest.of(from / size, size);
+        List<Item> itemsList;
+        if (mode == SearchMode.TRIGRAM) {
+            itemsList = itemRepository.searchAvailableBySimilarity(text, toLikePattern(text), page);
+        } else {
+            itemsList = itemRepository.searchAvailable(text, page);
+        }
+        return itemsList.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(toList());
+    }
+
+    // текст ищется как подстрока, поэтому служебные символы LIKE экранируются
+    private static String toLikePattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
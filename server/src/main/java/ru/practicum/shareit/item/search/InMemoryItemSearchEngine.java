@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final DatabaseItemSearchEngine database;
+    private final InvertedIndex index = new InvertedIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+        this.database = new DatabaseItemSearchEngine(itemRepository);
+    }
+
+    @Override
+    public List<ItemDto> search(String text, SearchMode mode, int from, int size) {
+        // поиск по триграммам есть только в базе; пока индекс строится, ищет тоже база
+        if (mode != SearchMode.FULLTEXT || !ready) {
+            return database.search(text, mode, from, size);
+        }
+        lock.readLock().lock();
+        try {
+            return index.search(text, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // изменения, закоммиченные во время загрузки, ждут блокировку и применяются поверх загруженного
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            Pageable page = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+            Slice<Item> slice;
+            do {
+                slice = itemRepository.findAll(page);
+                for (Item item : slice) {
+                    index.put(item.getUser().getId(), ItemMapper.toItemDto(item));
+                }
+                page = slice.nextPageable();
+            } while (slice.hasNext());
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: {} вещей за {} мс", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.put(event.getOwnerId(), event.getItem());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.remove(event.getItemId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.removeOwner(event.getUserId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
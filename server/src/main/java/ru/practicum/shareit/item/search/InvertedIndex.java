@@ -0,0 +1,188 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// обратный индекс по названию и описанию вещей: списки вхождений — битовые маски по плотным номерам документов,
+// а не по ID вещей, поэтому их размер зависит от числа вещей в индексе, а не от наибольшего ID с дырами
+// от блоков последовательности и удалений; номера удалённых вещей занимают новые.
+// доступность хранится отдельной битовой маской; не потокобезопасен, блокировками управляет InMemoryItemSearchEngine
+class InvertedIndex {
+
+    // совпадение в описании весит меньше совпадения в названии, как веса A и B полнотекстового поиска
+    private static final double DESCRIPTION_WEIGHT = 0.4;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableMap<String, BitSet> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, BitSet> descriptionTerms = new TreeMap<>();
+    private final Map<Long, BitSet> owners = new HashMap<>();
+    private final Map<Long, Integer> docsById = new HashMap<>();
+    // документ по номеру, null — свободный номер
+    private final List<Document> documents = new ArrayList<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final BitSet available = new BitSet();
+
+    void put(long ownerId, ItemDto item) {
+        remove(item.getId());
+        Document document = new Document(ownerId, item, tokenize(item.getName()), tokenize(item.getDescription()));
+        int doc = allocate(document);
+        docsById.put(item.getId(), doc);
+        document.nameTokens.forEach(token -> nameTerms.computeIfAbsent(token, t -> new BitSet()).set(doc));
+        document.descriptionTokens.forEach(token ->
+                descriptionTerms.computeIfAbsent(token, t -> new BitSet()).set(doc));
+        owners.computeIfAbsent(ownerId, o -> new BitSet()).set(doc);
+        available.set(doc, Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    void remove(long itemId) {
+        Integer doc = docsById.get(itemId);
+        if (doc != null) {
+            remove(doc.intValue());
+        }
+    }
+
+    void removeOwner(long ownerId) {
+        BitSet docs = owners.get(ownerId);
+        if (docs == null) {
+            return;
+        }
+        // remove() меняет маску владельца, поэтому обходится копия
+        BitSet copy = (BitSet) docs.clone();
+        for (int doc = copy.nextSetBit(0); doc >= 0; doc = copy.nextSetBit(doc + 1)) {
+            remove(doc);
+        }
+    }
+
+    void clear() {
+        nameTerms.clear();
+        descriptionTerms.clear();
+        owners.clear();
+        docsById.clear();
+        documents.clear();
+        freeDocs.clear();
+        available.clear();
+    }
+
+    int size() {
+        return docsById.size();
+    }
+
+    // каждое слово запроса должно быть началом слова из названия или описания доступной вещи
+    List<ItemDto> search(String text, int from, int size) {
+        List<String> tokens = List.copyOf(tokenize(text));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        BitSet found = (BitSet) available.clone();
+        List<BitSet> nameHits = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            BitSet inName = union(nameTerms, token);
+            BitSet inAny = union(descriptionTerms, token);
+            inAny.or(inName);
+            found.and(inAny);
+            nameHits.add(inName);
+        }
+
+        List<Hit> hits = new ArrayList<>(found.cardinality());
+        for (int doc = found.nextSetBit(0); doc >= 0; doc = found.nextSetBit(doc + 1)) {
+            double score = 0;
+            for (BitSet inName : nameHits) {
+                score += inName.get(doc) ? 1 : DESCRIPTION_WEIGHT;
+            }
+            hits.add(new Hit(doc, documents.get(doc).item.getId(), score));
+        }
+        // при равной релевантности — по ID вещи, как в поиске по базе
+        hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparingLong(Hit::getItemId));
+
+        // страницы считаются так же, как PageRequest.of(from / size, size)
+        int offset = from / size * size;
+        List<ItemDto> result = new ArrayList<>(Math.min(size, Math.max(hits.size() - offset, 0)));
+        for (int i = offset; i < hits.size() && result.size() < size; i++) {
+            result.add(documents.get(hits.get(i).getDoc()).item);
+        }
+        return result;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private int allocate(Document document) {
+        Integer doc = freeDocs.poll();
+        if (doc == null) {
+            documents.add(document);
+            return documents.size() - 1;
+        }
+        documents.set(doc, document);
+        return doc;
+    }
+
+    private void remove(int doc) {
+        Document document = documents.get(doc);
+        documents.set(doc, null);
+        freeDocs.push(doc);
+        docsById.remove(document.item.getId());
+        document.nameTokens.forEach(token -> clearBit(nameTerms, token, doc));
+        document.descriptionTokens.forEach(token -> clearBit(descriptionTerms, token, doc));
+        clearBit(owners, document.ownerId, doc);
+        available.clear(doc);
+    }
+
+    private static <K> void clearBit(Map<K, BitSet> postings, K key, int doc) {
+        BitSet docs = postings.get(key);
+        docs.clear(doc);
+        if (docs.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static BitSet union(NavigableMap<String, BitSet> terms, String prefix) {
+        BitSet docs = new BitSet();
+        terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(docs::or);
+        return docs;
+    }
+
+    @AllArgsConstructor
+    private static class Document {
+
+        private final long ownerId;
+        private final ItemDto item;
+        private final Set<String> nameTokens;
+        private final Set<String> descriptionTokens;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Hit {
+
+        private final int doc;
+        private final long itemId;
+        private final double score;
+    }
+}
@@ -0,0 +1,244 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toSet;
+
+// кэш результатов поиска; при изменении вещи сбрасываются только запросы, которые могли её найти:
+// те, чьи слова делят с вещью хотя бы одну триграмму, и те, в чьих результатах она уже есть
+public class ItemSearchCache implements MeterBinder {
+
+    private static final String METRIC_NAME = "items.search";
+
+    // слова короче триграммы совпадают с чем угодно, такие запросы сбрасываются при любом изменении
+    private static final String ANY = "";
+
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+    // обратные индексы хранят сами записи: при замене записи по тому же ключу старая не уносит ссылки новой
+    private final Map<String, Set<Entry>> entriesByTrigram = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Entry>> entriesByItem = new ConcurrentHashMap<>();
+    // растёт при каждом сбросе; результат, загруженный во время сброса, в кэш не кладётся
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemSearchCache(SearchCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, Entry entry) -> entry.weight)
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                // индексы чистятся в том же потоке, чтобы не отставать от кэша
+                .executor(Runnable::run)
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> unindex(entry))
+                .recordStats()
+                .build();
+    }
+
+    public List<ItemDto> get(String text, SearchMode mode, int from, int size, Supplier<List<ItemDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(mode, normalize(text), from / size, size);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.items;
+        }
+        long started = epoch.get();
+        List<ItemDto> items = loader.get();
+        Entry entry = new Entry(key, items, trigrams(text, true),
+                items.stream().map(ItemDto::getId).collect(toSet()));
+        index(entry);
+        cache.put(key, entry);
+        // вещь могла измениться, пока шёл запрос к базе: такой результат мог устареть;
+        // сброс после этой проверки уже увидит запись в индексах
+        if (epoch.get() != started) {
+            evict(Set.of(entry));
+        }
+        return items;
+    }
+
+    // сброс идёт после слушателей индекса и подсказок: иначе поиск между сбросом и обновлением индекса
+    // положил бы в кэш уже устаревшую страницу с новой эпохой
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDto item = event.getItem();
+        epoch.incrementAndGet();
+        Set<Entry> stale = new HashSet<>(entriesByItem.getOrDefault(item.getId(), Set.of()));
+        stale.addAll(entriesByTrigram.getOrDefault(ANY, Set.of()));
+        for (String trigram : trigrams(item.getName() + " " + item.getDescription(), false)) {
+            stale.addAll(entriesByTrigram.getOrDefault(trigram, Set.of()));
+        }
+        invalidate(stale);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        epoch.incrementAndGet();
+        invalidate(new HashSet<>(entriesByItem.getOrDefault(event.getItemId(), Set.of())));
+    }
+
+    // вещи пользователя удаляются каскадом в базе, их список здесь неизвестен
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidateAll();
+    }
+
+    // для изменений в обход событий, например массовой загрузки вещей
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        invalidations.addAndGet(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // cache.gets (hit/miss), cache.evictions, cache.size и другие метрики с тегом cache=items.search
+        CaffeineCacheMetrics.monitor(registry, cache, METRIC_NAME);
+        FunctionCounter.builder("cache.invalidations", invalidations, AtomicLong::get)
+                .tag("cache", METRIC_NAME)
+                .description("Результаты, сброшенные из-за изменения вещей")
+                .register(registry);
+    }
+
+    private void invalidate(Set<Entry> entries) {
+        invalidations.addAndGet(evict(entries));
+    }
+
+    // удаляет только те записи, что ещё лежат в кэше, более свежие под теми же ключами не трогает
+    private int evict(Set<Entry> entries) {
+        int evicted = 0;
+        for (Entry entry : entries) {
+            if (cache.asMap().remove(entry.key, entry)) {
+                evicted++;
+            } else {
+                unindex(entry);
+            }
+        }
+        return evicted;
+    }
+
+    private void index(Entry entry) {
+        entry.trigrams.forEach(trigram -> addEntry(entriesByTrigram, trigram, entry));
+        entry.itemIds.forEach(id -> addEntry(entriesByItem, id, entry));
+    }
+
+    private void unindex(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        entry.trigrams.forEach(trigram -> removeEntry(entriesByTrigram, trigram, entry));
+        entry.itemIds.forEach(id -> removeEntry(entriesByItem, id, entry));
+    }
+
+    // множества меняются внутри compute, иначе запись могла бы попасть в уже выброшенное пустое множество
+    private static <K> void addEntry(Map<K, Set<Entry>> index, K indexKey, Entry entry) {
+        index.compute(indexKey, (k, entries) -> {
+            Set<Entry> result = entries == null ? ConcurrentHashMap.newKeySet() : entries;
+            result.add(entry);
+            return result;
+        });
+    }
+
+    private static <K> void removeEntry(Map<K, Set<Entry>> index, K indexKey, Entry entry) {
+        index.computeIfPresent(indexKey, (k, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // триграммы слов текста; у запроса короткое слово превращается в метку «любое изменение»
+    private static Set<String> trigrams(String text, boolean query) {
+        Set<String> trigrams = new HashSet<>();
+        for (String token : InvertedIndex.tokenize(text)) {
+            if (token.length() < 3) {
+                if (query) {
+                    trigrams.add(ANY);
+                }
+                continue;
+            }
+            for (int i = 0; i + 3 <= token.length(); i++) {
+                trigrams.add(token.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+
+        private final SearchMode mode;
+        private final String text;
+        private final int page;
+        private final int size;
+    }
+
+    // сравнивается по ссылке
+    private static class Entry {
+
+        private final Key key;
+        private final List<ItemDto> items;
+        private final Set<String> trigrams;
+        private final Set<Long> itemIds;
+        private final int weight;
+
+        Entry(Key key, List<ItemDto> items, Set<String> trigrams, Set<Long> itemIds) {
+            this.key = key;
+            this.items = items;
+            this.trigrams = trigrams;
+            this.itemIds = itemIds;
+            this.weight = weigh(items);
+        }
+
+        // примерный размер в байтах: строки в UTF-16 плюс заголовки объектов
+        private static int weigh(List<ItemDto> items) {
+            int weight = 64;
+            for (ItemDto item : items) {
+                weight += 96 + 2 * (length(item.getName()) + length(item.getDescription()));
+            }
+            return weight;
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
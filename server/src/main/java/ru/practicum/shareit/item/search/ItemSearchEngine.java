@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.SearchMode;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<ItemDto> search(String text, SearchMode mode, int from, int size);
+}
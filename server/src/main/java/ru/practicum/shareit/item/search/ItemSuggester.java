@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// подсказки для строки поиска: слова из названий доступных вещей, вес слова — количество таких вещей
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggester {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final SuggestionTrie trie = new SuggestionTrie();
+    // какие слова каждой вещи сейчас учтены в дереве
+    private final Map<Long, Entry> items = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public List<String> suggest(String prefix, int size) {
+        // дополняется последнее слово строки, его пользователь и набирает
+        List<String> tokens = List.copyOf(InvertedIndex.tokenize(prefix));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.complete(tokens.get(tokens.size() - 1), size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            items.clear();
+            Pageable page = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+            Slice<Item> slice;
+            do {
+                slice = itemRepository.findAll(page);
+                for (Item item : slice) {
+                    put(item.getUser().getId(), ItemMapper.toItemDto(item));
+                }
+                page = slice.nextPageable();
+            } while (slice.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Дерево подсказок построено: {} слов", size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            put(event.getOwnerId(), event.getItem());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(items.remove(event.getItemId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            items.values().removeIf(entry -> {
+                if (entry.ownerId != event.getUserId()) {
+                    return false;
+                }
+                remove(entry);
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(long ownerId, ItemDto item) {
+        Set<String> tokens = Boolean.TRUE.equals(item.getAvailable())
+                ? InvertedIndex.tokenize(item.getName())
+                : Set.of();
+        remove(items.put(item.getId(), new Entry(ownerId, tokens)));
+        tokens.forEach(token -> trie.add(token, 1));
+    }
+
+    private void remove(Entry entry) {
+        if (entry != null) {
+            entry.tokens.forEach(token -> trie.add(token, -1));
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+
+        private final long ownerId;
+        private final Set<String> tokens;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SearchCacheProperties.class)
+public class SearchCacheConfig {
+
+    @Bean
+    public ItemSearchCache itemSearchCache(SearchCacheProperties properties) {
+        return new ItemSearchCache(properties);
+    }
+}
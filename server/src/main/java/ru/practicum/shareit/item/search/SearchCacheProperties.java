@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.search.cache")
+public class SearchCacheProperties {
+
+    private boolean enabled = true;
+
+    // примерный объём найденных вещей в памяти, сверх него вытесняются редко запрашиваемые результаты
+    private DataSize maxSize = DataSize.ofMegabytes(16);
+
+    // страховка на случай изменений в обход сервиса, например прямо в базе
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
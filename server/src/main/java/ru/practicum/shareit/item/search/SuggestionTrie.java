@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// префиксное дерево слов с весами: дети узла лежат в отсортированных массивах вместо HashMap,
+// каждый узел помнит наибольший вес в своём поддереве, поэтому лучшие дополнения ищутся без обхода всего поддерева;
+// не потокобезопасно, блокировками управляет ItemSuggester
+class SuggestionTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // сначала больший вес, при равном весе готовое слово раньше поддерева, затем по алфавиту
+    private static final Comparator<Candidate> ORDER = Comparator.comparingInt((Candidate c) -> c.weight).reversed()
+            .thenComparing(c -> c.node != null)
+            .thenComparing(c -> c.word);
+
+    private final Node root = new Node();
+    private int size;
+
+    // меняет вес слова на delta; слово с нулевым весом удаляется вместе с опустевшими узлами
+    void add(String word, int delta) {
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = delta > 0 ? node.getOrCreate(word.charAt(i)) : node.get(word.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path[i + 1] = node;
+        }
+        int before = node.weight;
+        node.weight = Math.max(before + delta, 0);
+        if (before == 0 && node.weight > 0) {
+            size++;
+        } else if (before > 0 && node.weight == 0) {
+            size--;
+        }
+        for (int i = word.length(); i >= 0; i--) {
+            Node current = path[i];
+            current.updateMaxWeight();
+            if (i > 0 && current.weight == 0 && current.keys.length == 0) {
+                path[i - 1].remove(word.charAt(i - 1));
+            }
+        }
+    }
+
+    int weight(String word) {
+        Node node = find(word);
+        return node == null ? 0 : node.weight;
+    }
+
+    // количество слов с ненулевым весом
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        root.keys = NO_KEYS;
+        root.children = NO_CHILDREN;
+        root.weight = 0;
+        root.maxWeight = 0;
+        size = 0;
+    }
+
+    List<String> complete(String prefix, int limit) {
+        Node start = find(prefix);
+        if (start == null || start.maxWeight == 0) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(limit);
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+        queue.add(new Candidate(prefix, start, start.maxWeight));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (node == null) {
+                result.add(candidate.word);
+                continue;
+            }
+            if (node.weight > 0) {
+                queue.add(new Candidate(candidate.word, null, node.weight));
+            }
+            for (int i = 0; i < node.keys.length; i++) {
+                queue.add(new Candidate(candidate.word + node.keys[i], node.children[i], node.children[i].maxWeight));
+            }
+        }
+        return result;
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.get(word.charAt(i));
+        }
+        return node;
+    }
+
+    private static class Node {
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int weight;
+        private int maxWeight;
+
+        Node get(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void remove(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+            updateMaxWeight();
+        }
+
+        void updateMaxWeight() {
+            int max = weight;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Candidate {
+
+        private final String word;
+        // null, если кандидат — готовое слово
+        private final Node node;
+        private final int weight;
+    }
+}
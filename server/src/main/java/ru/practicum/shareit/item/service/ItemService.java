@@ -2,22 +2,38 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDtoIn;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoDated;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.model.CommentCursor;
+import ru.practicum.shareit.item.model.SearchMode;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemService {
 
     ItemDto createItem(long userId, ItemDto itemDto);
 
+    List<ItemDto> createItems(long userId, List<ItemDto> itemDtos);
+
+    ItemImportReportDto importItems(long userId, Stream<String> lines);
+
     ItemDto updateItem(long userId, ItemDto itemDto, long itemId);
 
     ItemDtoDated getItemById(long userId, long itemId);
 
     List<ItemDtoDated> getUserItems(long userId, int from, int size);
 
-    List<ItemDto> search(String text, int from, int size);
+    List<ItemDto> search(String text, SearchMode mode, int from, int size);
+
+    List<String> suggest(String prefix, int size);
+
+    List<CommentDtoOut> getComments(long itemId, CommentCursor after, int limit);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDtoOut saveComment(long userId, long itemId, CommentDtoIn comment);
 
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -13,9 +22,16 @@ import ru.practicum.shareit.exception.BadParameterException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentCursor;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggester;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -23,10 +39,17 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
@@ -35,15 +58,32 @@ import static java.util.stream.Collectors.toList;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    // сколько последних отзывов показывать в карточке вещи, остальные отдаются постранично
+    private static final int CARD_COMMENTS_LIMIT = 20;
+
+    // сколько строк импорта копируется в базу одной транзакцией
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    // сколько ошибок импорта попадает в отчёт, остальные только считаются
+    private static final int MAX_IMPORT_ERRORS = 1000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSuggester suggester;
+    private final ItemSearchCache searchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemBookingCalendar bookingCalendar;
+    private final ObjectMapper objectMapper;
 
+    @Transactional
     @Override
     public void deleteItem(long id) {
         itemRepository.deleteById(id);
+        eventPublisher.publishEvent(new ItemDeletedEvent(id));
     }
 
     @Transactional
@@ -57,8 +97,85 @@ public class ItemServiceImpl implements ItemService {
                             + " нет в базе"));
         }
         Item itemFromDto = ItemMapper.toItem(itemDto, user, request);
-        Item item = itemRepository.save(itemFromDto);
-        return ItemMapper.toItemDto(item);
+        ItemDto savedItem = ItemMapper.toItemDto(itemRepository.save(itemFromDto));
+        eventPublisher.publishEvent(new ItemSavedEvent(userId, savedItem));
+        return savedItem;
+    }
+
+    // вещи сохраняются одной пачкой вставок; id из запроса не используются, вещи всегда новые
+    @Transactional
+    @Override
+    public List<ItemDto> createItems(long userId, List<ItemDto> itemDtos) {
+        User user = checkUser(userId);
+        Map<Long, Request> requests = requestRepository.findAllById(itemDtos.stream()
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Request::getId, identity()));
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (ItemDto itemDto : itemDtos) {
+            Request request = null;
+            if (itemDto.getRequestId() != null) {
+                request = Optional.ofNullable(requests.get(itemDto.getRequestId()))
+                        .orElseThrow(() -> new NotFoundException("Запроса с ID " + itemDto.getRequestId()
+                                + " нет в базе"));
+            }
+            Item item = ItemMapper.toItem(itemDto, user, request);
+            item.setId(null);
+            items.add(item);
+        }
+        List<ItemDto> savedItems = itemRepository.saveAll(items).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(toList());
+        savedItems.forEach(item -> eventPublisher.publishEvent(new ItemSavedEvent(userId, item)));
+        return savedItems;
+    }
+
+    // строки NDJSON читаются по одной и копируются в базу пакетами по IMPORT_BATCH_SIZE, каждый пакет в своей
+    // транзакции: отклонённая строка или пакет попадает в отчёт и не отменяет остальные
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public ItemImportReportDto importItems(long userId, Stream<String> lines) {
+        checkUser(userId);
+        ItemImportReportDto report = new ItemImportReportDto(0, 0, new ArrayList<>());
+        List<ItemDto> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<Long> batchLines = new ArrayList<>(IMPORT_BATCH_SIZE);
+        long lineNumber = 0;
+        Iterator<String> iterator = lines.iterator();
+        while (iterator.hasNext()) {
+            String line = iterator.next();
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemDto item;
+            try {
+                // readValue вернул бы null для строки «null»; массивы, строки и числа тоже не вещи
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    rejectLine(report, lineNumber, "Ожидался JSON-объект");
+                    continue;
+                }
+                item = objectMapper.treeToValue(node, ItemDto.class);
+            } catch (JsonProcessingException e) {
+                rejectLine(report, lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            String error = checkImported(item);
+            if (error != null) {
+                rejectLine(report, lineNumber, error);
+                continue;
+            }
+            batch.add(item);
+            batchLines.add(lineNumber);
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                importBatch(userId, batch, batchLines, report);
+                batch.clear();
+                batchLines.clear();
+            }
+        }
+        importBatch(userId, batch, batchLines, report);
+        return report;
     }
 
     @Transactional
@@ -81,38 +198,35 @@ public class ItemServiceImpl implements ItemService {
         Item item = ItemMapper.toItem(itemDto, itemFromRep, request);
         item.setId(itemId);
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemDto savedItem = ItemMapper.toItemDto(itemRepository.save(item));
+        eventPublisher.publishEvent(new ItemSavedEvent(userId, savedItem));
+        return savedItem;
     }
 
     @Override
-    public List<ItemDto> search(String text, int from, int size) {
-        Pageable page = PageRequest.of(from / size, size);
-        List<Item> itemsList = itemRepository.findByNameOrDescription(text, page);
-        return itemsList.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(toList());
+    public List<ItemDto> search(String text, SearchMode mode, int from, int size) {
+        return searchCache.get(text, mode, from, size, () -> searchEngine.search(text, mode, from, size));
     }
 
     @Override
-    public ItemDtoDated getItemById(long userId, long itemId) {
-        checkUser(userId);
+    public List<String> suggest(String prefix, int size) {
+        return suggester.suggest(prefix, size);
+    }
 
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Предмета с ID " + itemId + " не зарегистрировано"));
-        List<CommentDtoOut> comments = commentRepository.findAllByItemIdOrderByCreatedDesc(itemId)
+    @Override
+    public ItemDtoDated getItemById(long userId, long itemId) {
+        ItemCardView card = itemRepository.findCard(userId, itemId, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не зарегистрирован"));
+        if (card.getId() == null) {
+            throw new NotFoundException("Предмета с ID " + itemId + " не зарегистрировано");
+        }
+        ItemDto item = ItemMapper.toItemDto(card);
+        List<CommentDtoOut> comments = commentRepository.findLatestByItemId(itemId, CARD_COMMENTS_LIMIT)
                 .stream()
-                .map(CommentMapper::toCommentDto)
+                .map(comment -> CommentMapper.toCommentDto(comment, item))
                 .collect(toList());
-        if (item.getUser().getId() != userId) {
-            return ItemMapper.toItemDto(item, null, null, comments);
-        }
-        Booking lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(itemId,
-                LocalDateTime.now(), BookingStatus.APPROVED).orElse(null);
-        Booking nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStart(itemId,
-                LocalDateTime.now(), BookingStatus.APPROVED).orElse(null);
 
-        return ItemMapper.toItemDto(item, BookingMapper.toItemBookingDto(lastBooking),
-                BookingMapper.toItemBookingDto(nextBooking), comments);
+        return ItemMapper.toItemDto(card, comments);
     }
 
     @Override
@@ -131,36 +245,51 @@ public class ItemServiceImpl implements ItemService {
             itemIds.add(item.getId());
         }
         List<ItemDtoDated> datedItemList = new ArrayList<>();
-        Map<Item, List<Booking>> lastBookingsMap = bookingRepository
-                .findAllByItemUserIdAndItemIdInAndStartBeforeOrderByStartDesc(userId, itemIds, LocalDateTime.now())
+        Map<Long, BookingDtoForItem> lastBookings = new HashMap<>();
+        Map<Long, BookingDtoForItem> nextBookings = new HashMap<>();
+        findLastAndNextBookings(itemIds, lastBookings, nextBookings);
+        Map<Long, List<ItemCommentView>> comments = commentRepository
+                .findLatestByItemIdIn(itemIds, CARD_COMMENTS_LIMIT)
                 .stream()
-                .collect(groupingBy(Booking::getItem, toList()));
-        Map<Item, List<Booking>> nextBookingsMap = bookingRepository
-                .findAllByItemUserIdAndItemIdInAndStartAfterOrderByStart(userId, itemIds, LocalDateTime.now())
-                .stream()
-                .collect(groupingBy(Booking::getItem, toList()));
-        Map<Item, List<Comment>> comments = commentRepository.findAllByItemUserIdInOrderByCreatedDesc(itemIds)
-                .stream()
-                .collect(groupingBy(Comment::getItem, toList()));
+                .collect(groupingBy(ItemCommentView::getItemId, toList()));
 
         for (Item item : items) {
-            Booking lastBooking = null;
-            Booking nextBooking = null;
-
-            if (lastBookingsMap.get(item) != null && lastBookingsMap.get(item).get(0) != null) {
-                lastBooking = lastBookingsMap.get(item).get(0);
-            }
-            if (nextBookingsMap.get(item) != null && nextBookingsMap.get(item).get(0) != null) {
-                nextBooking = nextBookingsMap.get(item).get(0);
-            }
-            List<CommentDtoOut> commentsList = comments.getOrDefault(item,
-                    List.of()).stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
-            datedItemList.add(ItemMapper.toItemDto(item, BookingMapper.toItemBookingDto(lastBooking),
-                    BookingMapper.toItemBookingDto(nextBooking), commentsList));
+            ItemDto itemDto = ItemMapper.toItemDto(item);
+            List<ItemCommentView> itemComments = comments.getOrDefault(item.getId(), List.of());
+            List<CommentDtoOut> commentsList = itemComments.stream()
+                    .map(comment -> CommentMapper.toCommentDto(comment, itemDto))
+                    .collect(Collectors.toList());
+            long commentsCount = itemComments.isEmpty() ? 0 : itemComments.get(0).getCommentsCount();
+            datedItemList.add(ItemMapper.toItemDto(item, lastBookings.get(item.getId()),
+                    nextBookings.get(item.getId()), commentsList, commentsCount));
         }
         return datedItemList;
     }
 
+    @Override
+    public List<CommentDtoOut> getComments(long itemId, CommentCursor after, int limit) {
+        ItemDto item = itemRepository.findById(itemId)
+                .map(ItemMapper::toItemDto)
+                .orElseThrow(() -> new NotFoundException("Предмета с ID " + itemId + " не зарегистрировано"));
+        List<CommentView> comments = after == null
+                ? commentRepository.findLatestByItemId(itemId, limit)
+                : commentRepository.findLatestByItemIdBefore(itemId, after.getCreated(), after.getId(), limit);
+        return comments.stream()
+                .map(comment -> CommentMapper.toCommentDto(comment, item))
+                .collect(toList());
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadParameterException("Начало периода " + from + " должно быть раньше конца " + to);
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Предмета с ID " + itemId + " не зарегистрировано");
+        }
+        return bookingCalendar.getAvailability(itemId, from, to);
+    }
+
     @Transactional
     @Override
     public CommentDtoOut saveComment(long userId, long itemId, CommentDtoIn commentDto) {
@@ -178,6 +307,76 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
 
+    // последнее и следующее подтверждённое бронирование каждой вещи одним запросом, сразу в DTO
+    private void findLastAndNextBookings(List<Long> itemIds, Map<Long, BookingDtoForItem> lastBookings,
+                                         Map<Long, BookingDtoForItem> nextBookings) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ItemBookingView booking : bookingRepository.findLastAndNextApproved(itemIds, now)) {
+            Map<Long, BookingDtoForItem> target = booking.getStart().isBefore(now) ? lastBookings : nextBookings;
+            target.put(booking.getItemId(), BookingMapper.toItemBookingDto(booking));
+        }
+    }
+
+    private void importBatch(long userId, List<ItemDto> batch, List<Long> batchLines, ItemImportReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> requestIds = requestRepository.findAllById(batch.stream()
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .map(Request::getId)
+                .collect(Collectors.toSet());
+        List<ItemDto> items = new ArrayList<>(batch.size());
+        List<Long> itemLines = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ItemDto item = batch.get(i);
+            if (item.getRequestId() != null && !requestIds.contains(item.getRequestId())) {
+                rejectLine(report, batchLines.get(i), "Запроса с ID " + item.getRequestId() + " нет в базе");
+            } else {
+                items.add(item);
+                itemLines.add(batchLines.get(i));
+            }
+        }
+        List<Long> ids;
+        try {
+            ids = itemRepository.copyItems(userId, items);
+        } catch (DataAccessException e) {
+            String error = "Пакет строк не сохранён: " + e.getMostSpecificCause().getMessage();
+            itemLines.forEach(line -> rejectLine(report, line, error));
+            return;
+        }
+        report.setImported(report.getImported() + ids.size());
+        // вещи записаны в обход Hibernate, поиск и подсказки узнают о них из тех же событий
+        for (int i = 0; i < ids.size(); i++) {
+            ItemDto item = items.get(i);
+            item.setId(ids.get(i));
+            eventPublisher.publishEvent(new ItemSavedEvent(userId, item));
+        }
+    }
+
+    // те же ограничения проверяет база, но ошибка одной строки в COPY отменила бы весь пакет
+    private static String checkImported(ItemDto item) {
+        if (item.getName() == null || item.getName().isBlank() || item.getName().length() > 50) {
+            return "Название вещи должно быть непустым и не длиннее 50 символов";
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()
+                || item.getDescription().length() > 500) {
+            return "Описание вещи должно быть непустым и не длиннее 500 символов";
+        }
+        if (item.getAvailable() == null) {
+            return "Не указана доступность вещи";
+        }
+        return null;
+    }
+
+    private static void rejectLine(ItemImportReportDto report, long line, String error) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_IMPORT_ERRORS) {
+            report.getErrors().add(new ItemImportErrorDto(line, error));
+        }
+    }
+
     private User checkUser(long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не зарегистрирован"));
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+
+// ETag считается по телу ответа: карточка вещи содержит последнее и следующее бронирование,
+// которые меняются со временем без изменения самих записей, поэтому версии сущностей для ETag не годятся.
+// На запрос с совпавшим If-None-Match фильтр отвечает 304 без тела
+@Component
+public class EtagFilter extends ShallowEtagHeaderFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/items") || path.startsWith("/requests"));
+    }
+}
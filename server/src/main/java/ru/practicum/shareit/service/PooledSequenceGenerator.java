@@ -0,0 +1,38 @@
+package ru.practicum.shareit.service;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// идентификаторы из последовательности identity-столбца таблицы (<таблица>_id_seq) блоками по increment_size:
+// Hibernate знает id до вставки и объединяет вставки в JDBC-пакеты. блок [v, v + increment_size) начинается
+// со значения последовательности (pooled-lo), поэтому вставки в обход Hibernate со значением столбца
+// по умолчанию не пересекаются с выданными блоками. размер блока задаёт shareit.id.increment_size,
+// он должен совпадать с INCREMENT BY последовательностей в schema.sql
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String NAME = "pooled-sequence";
+
+    public static final String STRATEGY = "ru.practicum.shareit.service.PooledSequenceGenerator";
+
+    public static final String INCREMENT_SIZE_SETTING = "shareit.id.increment_size";
+
+    private static final String DEFAULT_INCREMENT_SIZE = "50";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object incrementSize = serviceRegistry.getService(ConfigurationService.class).getSettings()
+                .getOrDefault(INCREMENT_SIZE_SETTING, DEFAULT_INCREMENT_SIZE);
+        params.setProperty(INCREMENT_PARAM, incrementSize.toString());
+        params.setProperty(SEQUENCE_PARAM, params.getProperty(PersistentIdentifierGenerator.TABLE) + "_id_seq");
+        if (Integer.parseInt(incrementSize.toString()) > 1) {
+            params.setProperty(OPT_PARAM, "pooled-lo");
+        }
+        super.configure(type, params, serviceRegistry);
+    }
+}
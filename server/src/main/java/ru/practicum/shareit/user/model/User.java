@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import ru.practicum.shareit.service.PooledSequenceGenerator;
 
 import javax.persistence.*;
 
@@ -16,7 +18,8 @@ import javax.persistence.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledSequenceGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceGenerator.NAME, strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
     @Column(length = 50)
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// вместе с пользователем база удаляет и его вещи (ON DELETE CASCADE)
+@Getter
+@AllArgsConstructor
+public class UserDeletedEvent {
+
+    private final long userId;
+}
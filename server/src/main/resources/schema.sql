@@ -42,4 +42,60 @@ CREATE TABLE IF NOT EXISTS comments (
     created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE,
     CONSTRAINT fk_comments_to_users FOREIGN KEY(author_id) REFERENCES users(id) ON DELETE CASCADE
-    );
\ No newline at end of file
+    );
+
+-- полнотекстовый поиск по вещам: название важнее описания (вес A против B)
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+
+-- поиск по фрагментам слов и артикулам: GIN-индексы по триграммам для ILIKE '%...%' и word_similarity
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops);
+
+-- последнее и следующее подтверждённое бронирование вещи: одна строка индекса на каждое
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_approved ON bookings (item_id, start_date)
+    WHERE status = 'APPROVED';
+
+-- последние отзывы в карточке вещи и постраничная лента отзывов: (created_date, id) задаёт порядок без повторов
+DROP INDEX IF EXISTS idx_comments_item_created;
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created_id ON comments (item_id, created_date DESC, id DESC);
+
+-- постраничный вывод бронирований арендатора по курсору (start_date, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date DESC, id DESC);
+
+-- постраничный вывод бронирований владельца: вещи владельца, затем их бронирования в том же порядке, что у арендатора
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings (item_id, start_date DESC, id DESC);
+
+-- подтверждённые бронирования одной вещи не пересекаются по времени; страхует проверку в сервисе,
+-- которая защищает только внутри одного экземпляра сервера
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period EXCLUDE USING gist
+            (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+-- Hibernate берёт id блоками по shareit.id.increment_size значений, шаг последовательностей должен совпадать
+ALTER TABLE users ALTER COLUMN id SET INCREMENT BY 50;
+
+ALTER TABLE requests ALTER COLUMN id SET INCREMENT BY 50;
+
+ALTER TABLE items ALTER COLUMN id SET INCREMENT BY 50;
+
+ALTER TABLE bookings ALTER COLUMN id SET INCREMENT BY 50;
+
+ALTER TABLE comments ALTER COLUMN id SET INCREMENT BY 50;
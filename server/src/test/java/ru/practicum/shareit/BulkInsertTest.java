@@ -0,0 +1,116 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+// пакетное создание с id из последовательности блоками по 50: число запросов почти не зависит от размера пакета
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.properties.shareit.id.increment_size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(scripts = "classpath:pooled-ids.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class BulkInsertTest {
+
+    private static final int BATCH = 100;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ItemService itemService;
+
+    private final UserService userService;
+
+    private final BookingService bookingService;
+
+    private final ItemBookingCalendar bookingCalendar;
+
+    private Statistics statistics;
+    private long ownerId;
+    private long bookerId;
+
+    @BeforeEach
+    void beforeEach() {
+        // таблицы очищены в обход событий
+        bookingCalendar.invalidateAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.createUser(new UserDto(null, "Иван Иванович", "ii@mail.ru")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Петр Петрович", "pp@mail.ru")).getId();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldCreateItemsWithFewStatements() {
+        List<ItemDto> items = itemService.createItems(ownerId, items());
+
+        assertThat(items.size(), equalTo(BATCH));
+        assertThat(statistics.getEntityInsertCount(), equalTo((long) BATCH));
+        // пользователь, два блока id и две пачки вставок по hibernate.jdbc.batch_size
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(5L));
+    }
+
+    @Test
+    void shouldCreateItemsInBatchWithFarFewerStatementsThanOneByOne() {
+        for (ItemDto item : items()) {
+            itemService.createItem(ownerId, item);
+        }
+        long oneByOne = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        itemService.createItems(ownerId, items());
+
+        // по одной: пользователь и вставка на каждую вещь, id берутся из уже выданных блоков
+        assertThat(oneByOne, greaterThanOrEqualTo(2L * BATCH));
+        assertThat(statistics.getPrepareStatementCount() * 20, lessThan(oneByOne));
+    }
+
+    @Test
+    void shouldSaveBookingsWithFewStatements() {
+        long itemId = itemService.createItem(ownerId, new ItemDto(null, "Дрель", "Ударная", true, null)).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> bookings = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            bookings.add(new BookingDtoIn(null, start.plusDays(i), start.plusDays(i).plusHours(12), itemId));
+        }
+        statistics.clear();
+
+        List<BookingDtoOut> saved = bookingService.saveBookings(bookerId, bookings);
+
+        assertThat(saved.size(), equalTo(BATCH));
+        assertThat(statistics.getEntityInsertCount(), equalTo((long) BATCH));
+        // пользователь, вещи, календарь вещи, два блока id и две пачки вставок
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(6L));
+    }
+
+    private static List<ItemDto> items() {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 1; i <= BATCH; i++) {
+            items.add(new ItemDto(null, "Вещь " + i, "Описание вещи " + i, true, null));
+        }
+        return items;
+    }
+}
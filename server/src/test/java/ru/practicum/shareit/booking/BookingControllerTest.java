@@ -9,8 +9,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -27,6 +30,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.service.Header.NEXT_CURSOR;
 import static ru.practicum.shareit.service.Header.USER_ID;
 
 @WebMvcTest(BookingController.class)
@@ -80,6 +84,46 @@ class BookingControllerTest {
                 .saveBooking(anyLong(), any(), any());
     }
 
+    @Test
+    void shouldSaveBookingsInBatch() throws Exception {
+        when(bookingService.saveBookings(anyLong(), any()))
+                .thenReturn(List.of(bookingDtoOut));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDtoIn)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDtoOut.getId()), Long.class));
+
+        verify(bookingService, times(1))
+                .saveBookings(eq(1L), argThat(bookings -> bookings.size() == 1));
+    }
+
+    @Test
+    void shouldApproveAllInBatch() throws Exception {
+        when(bookingService.bookingApproveAll(anyLong(), any()))
+                .thenReturn(List.of(new BookingDecisionResultDto(1L, BookingStatus.APPROVED, null),
+                        new BookingDecisionResultDto(2L, BookingStatus.APPROVED, "Уже подтверждено")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(1L, true),
+                                new BookingDecisionDto(2L, false))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[0].error", nullValue()))
+                .andExpect(jsonPath("$[1].error", is("Уже подтверждено")));
+
+        verify(bookingService, times(1))
+                .bookingApproveAll(eq(1L), argThat(decisions -> decisions.size() == 2));
+    }
+
     @Test
     void shouldBookingApprove() throws Exception {
         long userId = 1L;
@@ -185,4 +229,46 @@ class BookingControllerTest {
         verify(bookingService, times(1))
                 .findOwnerBookings(userId, enumState, from, size);
     }
+
+    @Test
+    void shouldFindOwnerBookingsAfterCursorWithNextCursor() throws Exception {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 3, 1, 10, 15), 15L);
+        when(bookingService.findOwnerBookings(anyLong(), any(), any(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(bookingDtoOut));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID, 1)
+                        .param("size", "1")
+                        .param("cursor", cursor.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR,
+                        new BookingCursor(bookingDtoOut.getStart(), bookingDtoOut.getId()).toString()));
+
+        verify(bookingService, times(1))
+                .findOwnerBookings(eq(1L), eq(BookingState.ALL),
+                        argThat((BookingCursor c) -> c.getId() == 15L && c.getStart().equals(cursor.getStart())), eq(1));
+    }
+
+    @Test
+    void shouldNotReturnNextCursorForLastPage() throws Exception {
+        when(bookingService.findUserBookings(1L, BookingState.ALL, 0, 5))
+                .thenReturn(List.of(bookingDtoOut));
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1)
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR));
+    }
+
+    @Test
+    void shouldNotFindUserBookingsWithBadCursor() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1)
+                        .param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never())
+                .findUserBookings(anyLong(), any(), any(BookingCursor.class), anyInt());
+    }
 }
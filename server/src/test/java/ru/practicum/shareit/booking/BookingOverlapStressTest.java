@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(scripts = "classpath:data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class BookingOverlapStressTest {
+
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemBookingCalendar bookingCalendar;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+    private final LocalDateTime end = start.plusDays(2);
+
+    @BeforeEach
+    void beforeEach() {
+        // data.sql очищает таблицы в обход событий
+        bookingCalendar.invalidateAll();
+        userService.createUser(new UserDto(1L, "Иван Иванович", "ii@mail.ru"));
+        for (long i = 2; i <= THREADS + 1; i++) {
+            userService.createUser(new UserDto(i, "Арендатор " + i, "booker" + i + "@mail.ru"));
+        }
+        itemService.createItem(1L, new ItemDto(1L, "Вещь 1", "Описание вещи 1", true, null));
+    }
+
+    @Test
+    void shouldAcceptOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        List<Throwable> errors = race(bookerId -> bookingService.saveBooking(bookerId,
+                new BookingDtoIn(null, start.plusHours(bookerId), end.plusHours(bookerId), 1L),
+                BookingStatus.WAITING));
+
+        assertThat(errors.size(), equalTo(THREADS - 1));
+        errors.forEach(error -> assertThat(error, instanceOf(AlreadyExistException.class)));
+        assertThat(countBookings(), equalTo(1));
+    }
+
+    @Test
+    void shouldApproveOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        // ожидающие бронирования в обход сервиса: между собой они пересекаются
+        for (long bookerId = 2; bookerId <= THREADS + 1; bookerId++) {
+            insertBooking(bookerId, start.plusHours(bookerId), end.plusHours(bookerId), BookingStatus.WAITING);
+        }
+
+        List<Throwable> errors = race(bookerId -> bookingService.bookingApprove(1L, bookerId - 1, true));
+
+        assertThat(errors.size(), equalTo(THREADS - 1));
+        errors.forEach(error -> assertThat(error, instanceOf(AlreadyExistException.class)));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bookings WHERE status = 'APPROVED'",
+                Integer.class), equalTo(1));
+    }
+
+    @Test
+    void shouldAcceptAdjacentBookings() {
+        bookingService.saveBooking(2L, new BookingDtoIn(null, start, end, 1L), BookingStatus.WAITING);
+        bookingService.saveBooking(3L, new BookingDtoIn(null, end, end.plusDays(1), 1L), BookingStatus.WAITING);
+
+        assertThat(countBookings(), equalTo(2));
+    }
+
+    @Test
+    void shouldRejectOverlappingApprovedBookingsInDatabase() {
+        insertBooking(2L, start, end, BookingStatus.APPROVED);
+        insertBooking(3L, start.plusDays(1), end.plusDays(1), BookingStatus.REJECTED);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertBooking(4L, start.plusDays(1), end.plusDays(1), BookingStatus.APPROVED));
+    }
+
+    // все потоки стартуют одновременно; возвращает ошибки неудачных попыток
+    private List<Throwable> race(BookingAttempt attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<BookingDtoOut>> futures = new ArrayList<>();
+        for (long bookerId = 2; bookerId <= THREADS + 1; bookerId++) {
+            long id = bookerId;
+            futures.add(executor.submit(() -> {
+                ready.await();
+                return attempt.run(id);
+            }));
+        }
+        ready.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), equalTo(true));
+        List<Throwable> errors = new ArrayList<>();
+        for (Future<BookingDtoOut> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                errors.add(e.getCause());
+            }
+        }
+        return errors;
+    }
+
+    private void insertBooking(long bookerId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, 1, ?, ?)", start, end, bookerId, status.name());
+    }
+
+    private int countBookings() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM bookings", Integer.class);
+    }
+
+    private interface BookingAttempt {
+
+        BookingDtoOut run(long bookerId);
+    }
+}
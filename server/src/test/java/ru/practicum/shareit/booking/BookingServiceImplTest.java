@@ -4,12 +4,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingLocks;
+import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.BadParameterException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -23,6 +27,7 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -34,6 +39,7 @@ class BookingServiceImplTest {
     private BookingServiceImpl bookingService;
     private BookingRepository bookingRepository;
     private ItemRepository itemRepository;
+    private ItemBookingCalendar calendar;
 
     private Item item;
     private User user;
@@ -54,9 +60,11 @@ class BookingServiceImplTest {
 
         userRepository = mock(UserRepository.class);
         itemRepository = mock(ItemRepository.class);
+        calendar = mock(ItemBookingCalendar.class);
         bookingRepository = mock(BookingRepository.class);
 
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                mock(ItemBookingLocks.class), calendar, mock(ApplicationEventPublisher.class));
     }
 
     @Test
@@ -66,7 +74,7 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.ofNullable(user2));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.save(any()))
+        when(bookingRepository.saveAndFlush(any()))
                 .thenReturn(booking);
 
         BookingDtoOut bookingDtoOut = bookingService.saveBooking(userId, bookingDtoIn, BookingStatus.WAITING);
@@ -82,7 +90,24 @@ class BookingServiceImplTest {
         verify(itemRepository, times(1))
                 .findById(anyLong());
         verify(bookingRepository, times(1))
-                .save(any());
+                .saveAndFlush(any());
+    }
+
+    @Test
+    void shouldNotSaveOverlappingBooking() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+        when(calendar.isBusy(anyLong(), any(), any()))
+                .thenReturn(true);
+
+        AlreadyExistException thrown = assertThrows(AlreadyExistException.class,
+                () -> bookingService.saveBooking(2L, bookingDtoIn, BookingStatus.WAITING));
+
+        assertThat(thrown.getMessage(), equalTo("Вещь с ID " + item.getId() + " уже забронирована на это время"));
+        verify(bookingRepository, never())
+                .saveAndFlush(any());
     }
 
     @Test
@@ -180,6 +205,8 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.ofNullable(user));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.saveAndFlush(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         BookingDtoOut bookingDtoOut = bookingService.bookingApprove(userId, bookingId, approved);
 
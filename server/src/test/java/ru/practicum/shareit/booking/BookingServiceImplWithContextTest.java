@@ -5,13 +5,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -23,11 +29,17 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -35,8 +47,10 @@ import static org.hamcrest.Matchers.notNullValue;
 public class BookingServiceImplWithContextTest {
 
     private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
     private final BookingService bookingService;
     private final ItemService itemService;
+    private final ItemBookingCalendar bookingCalendar;
     private final UserService userService;
 
     private ItemDto itemDto;
@@ -49,6 +63,8 @@ public class BookingServiceImplWithContextTest {
 
     @BeforeEach
     void beforeEach() {
+        // data.sql очищает таблицы в обход событий
+        bookingCalendar.invalidateAll();
         user = new User(1L, "Иван Иванович", "ii@mail.ru");
         userDto = new UserDto(1L, "Иван Иванович", "ii@mail.ru");
         userDto2 = new UserDto(2L, "Петр Петрович", "pp@mail.ru");
@@ -564,4 +580,104 @@ public class BookingServiceImplWithContextTest {
             assertThat(thrown.getMessage(), equalTo("Пользователь с ID " + userId + " не зарегистрирован"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldPageUserAndOwnerBookingsWithCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Вещь 2", "Описание вещи 2", true, null));
+        // бронирования 1 и 5 начинаются одновременно, порядок между ними задаёт id;
+        // пересекаться по времени может только бронирование другой вещи
+        for (int i = 0; i < 5; i++) {
+            bookingService.saveBooking(userDto2.getId(), new BookingDtoIn(null, start.plusDays(i % 4),
+                    start.plusDays(i % 4).plusHours(1), i < 4 ? itemDto.getId() : 2L), BookingStatus.WAITING);
+        }
+
+        assertThat(collectPages(cursor -> bookingService.findUserBookings(userDto2.getId(), BookingState.ALL,
+                cursor, 2)), contains(4L, 3L, 2L, 5L, 1L));
+        assertThat(collectPages(cursor -> bookingService.findOwnerBookings(userDto.getId(), BookingState.WAITING,
+                cursor, 2)), contains(4L, 3L, 2L, 5L, 1L));
+    }
+
+    @Test
+    void shouldApproveAndRejectBookingsInBatch() {
+        LocalDateTime day = LocalDateTime.now().plusDays(1).withNano(0);
+        itemService.createItem(userDto2.getId(), new ItemDto(2L, "Вещь 2", "Описание вещи 2", true, null));
+        saveBooking(userDto2.getId(), 1L, day.plusDays(1), day.plusDays(2), BookingStatus.WAITING);
+        saveBooking(userDto2.getId(), 1L, day.plusDays(3), day.plusDays(4), BookingStatus.WAITING);
+        saveBooking(userDto2.getId(), 1L, day.plusDays(5), day.plusDays(6), BookingStatus.APPROVED);
+        // ожидающие бронирования в обход сервиса: первое пересекается с подтверждённым, второе — с первым
+        insertWaiting(userDto2.getId(), day.plusDays(5), day.plusDays(6));
+        insertWaiting(userDto2.getId(), day.plusDays(1), day.plusDays(2));
+        saveBooking(userDto.getId(), 2L, day.plusDays(1), day.plusDays(2), BookingStatus.WAITING);
+
+        List<BookingDecisionResultDto> results = bookingService.bookingApproveAll(userDto.getId(), List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(3L, true), new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(5L, true), new BookingDecisionDto(6L, true),
+                new BookingDecisionDto(99L, true), new BookingDecisionDto(1L, false)));
+
+        assertThat(results.stream().map(BookingDecisionResultDto::getBookingId).collect(Collectors.toList()),
+                contains(1L, 2L, 3L, 4L, 5L, 6L, 99L));
+        assertThat(results.stream().map(BookingDecisionResultDto::getStatus).collect(Collectors.toList()),
+                contains(BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.APPROVED,
+                        BookingStatus.WAITING, BookingStatus.WAITING, BookingStatus.WAITING, null));
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(1).getError(), nullValue());
+        assertThat(results.get(3).getError(), equalTo("Вещь с ID 1 уже забронирована на это время"));
+        assertThat(results.get(4).getError(), equalTo("Вещь с ID 1 уже забронирована на это время"));
+        assertThat(results.get(5).getError(), equalTo("Пользователь ID 1 не является владельцем вещи с ID 2"));
+        assertThat(bookingService.findBookingById(userDto.getId(), 1L).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingService.findBookingById(userDto.getId(), 2L).getStatus(), equalTo(BookingStatus.REJECTED));
+        // календарь вещи обновлён: отклонённое бронирование больше не занимает вещь
+        assertThat(itemService.getAvailability(1L, day, day.plusDays(7)).getBusy().size(), equalTo(2));
+    }
+
+    @Test
+    void shouldSaveBookingsInBatchAllOrNothing() {
+        LocalDateTime day = LocalDateTime.now().plusDays(1).withNano(0);
+        saveBooking(userDto2.getId(), 1L, day.plusDays(5), day.plusDays(6), BookingStatus.APPROVED);
+
+        // второе бронирование пакета пересекается с первым: не сохраняется ни одно
+        assertThrows(AlreadyExistException.class, () -> bookingService.saveBookings(userDto2.getId(),
+                List.of(new BookingDtoIn(null, day.plusDays(1), day.plusDays(3), 1L),
+                        new BookingDtoIn(null, day.plusDays(2), day.plusDays(4), 1L))));
+        // третье пересекается с уже подтверждённым
+        assertThrows(AlreadyExistException.class, () -> bookingService.saveBookings(userDto2.getId(),
+                List.of(new BookingDtoIn(null, day.plusDays(1), day.plusDays(2), 1L),
+                        new BookingDtoIn(null, day.plusDays(3), day.plusDays(4), 1L),
+                        new BookingDtoIn(null, day.plusDays(5), day.plusDays(7), 1L))));
+        assertThat(itemService.getAvailability(1L, day, day.plusDays(7)).getBusy().size(), equalTo(1));
+
+        List<BookingDtoOut> saved = bookingService.saveBookings(userDto2.getId(),
+                List.of(new BookingDtoIn(null, day.plusDays(1), day.plusDays(2), 1L),
+                        new BookingDtoIn(null, day.plusDays(3), day.plusDays(4), 1L)));
+
+        assertThat(saved.stream().map(BookingDtoOut::getStatus).collect(Collectors.toList()),
+                contains(BookingStatus.WAITING, BookingStatus.WAITING));
+        assertThat(itemService.getAvailability(1L, day, day.plusDays(7)).getBusy().size(), equalTo(3));
+    }
+
+    private void saveBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end,
+                             BookingStatus status) {
+        bookingService.saveBooking(bookerId, new BookingDtoIn(null, start, end, itemId), status);
+    }
+
+    private void insertWaiting(long bookerId, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, 1, ?, 'WAITING')", start, end, bookerId);
+    }
+
+    private static List<Long> collectPages(Function<BookingCursor, List<BookingDtoOut>> pageLoader) {
+        List<Long> ids = new ArrayList<>();
+        BookingCursor cursor = null;
+        List<BookingDtoOut> page;
+        do {
+            page = pageLoader.apply(cursor);
+            for (BookingDtoOut booking : page) {
+                ids.add(booking.getId());
+                cursor = new BookingCursor(booking.getStart(), booking.getId());
+            }
+        } while (!page.isEmpty());
+        return ids;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.model.BookingSavedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemBookingCalendarTest {
+
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingRepository bookingRepository;
+    private ItemBookingCalendar calendar;
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        calendar = new ItemBookingCalendar(bookingRepository, new BookingCalendarProperties());
+    }
+
+    @Test
+    void shouldLoadItemOnceAndFindOverlaps() {
+        load(view(1L, 1, 3, BookingStatus.APPROVED), view(2L, 5, 6, BookingStatus.WAITING));
+
+        assertThat(calendar.isBusy(1L, at(0), at(1)), is(false));
+        assertThat(calendar.isBusy(1L, at(2), at(4)), is(true));
+        assertThat(calendar.isBusy(1L, at(3), at(5)), is(false));
+        assertThat(calendar.isBusy(1L, at(4), at(10)), is(true));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(anyLong(), any());
+    }
+
+    @Test
+    void shouldFindOverlapBehindLongerBooking() {
+        // короткое бронирование внутри длинного: по началу ближе короткое, но занято ещё долго
+        load(view(1L, 0, 10, BookingStatus.APPROVED), view(2L, 1, 2, BookingStatus.WAITING));
+
+        assertThat(calendar.isBusy(1L, at(7), at(8)), is(true));
+    }
+
+    @Test
+    void shouldMergeBusyPeriodsAndFillGaps() {
+        load(view(1L, 1, 3, BookingStatus.APPROVED), view(2L, 2, 4, BookingStatus.WAITING),
+                view(3L, 6, 12, BookingStatus.APPROVED));
+
+        ItemAvailabilityDto availability = calendar.getAvailability(1L, at(0), at(8));
+
+        assertThat(periods(availability.getBusy()), contains(period(1, 4), period(6, 8)));
+        assertThat(periods(availability.getFree()), contains(period(0, 1), period(4, 6)));
+    }
+
+    @Test
+    void shouldApplySavedBookingsToLoadedItem() {
+        load(view(1L, 1, 3, BookingStatus.WAITING));
+        calendar.isBusy(1L, at(0), at(1));
+
+        calendar.onBookingSaved(new BookingSavedEvent(2L, 1L, at(5), at(6), BookingStatus.WAITING));
+        calendar.onBookingSaved(new BookingSavedEvent(1L, 1L, at(1), at(3), BookingStatus.REJECTED));
+
+        assertThat(calendar.isBusy(1L, at(1), at(3)), is(false));
+        assertThat(calendar.isBusy(1L, at(5), at(6)), is(true));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(anyLong(), any());
+    }
+
+    @Test
+    void shouldNotLoadItemOnSavedBookingAndDropDeletedItem() {
+        load();
+
+        calendar.onBookingSaved(new BookingSavedEvent(1L, 1L, at(1), at(3), BookingStatus.WAITING));
+
+        assertThat(calendar.size(), equalTo(0L));
+
+        calendar.isBusy(1L, at(0), at(1));
+        calendar.onItemDeleted(new ItemDeletedEvent(1L));
+
+        assertThat(calendar.size(), equalTo(0L));
+    }
+
+    private void load(BookingPeriodView... views) {
+        when(bookingRepository.findAllByItemIdAndStatusIn(anyLong(), any()))
+                .thenReturn(List.of(views));
+    }
+
+    private BookingPeriodView view(long id, int startDay, int endDay, BookingStatus status) {
+        BookingPeriodView view = mock(BookingPeriodView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getStart()).thenReturn(at(startDay));
+        when(view.getEnd()).thenReturn(at(endDay));
+        when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+
+    private LocalDateTime at(int days) {
+        return day.plusDays(days);
+    }
+
+    private String period(int startDay, int endDay) {
+        return at(startDay) + "/" + at(endDay);
+    }
+
+    private static List<String> periods(List<PeriodDto> periods) {
+        return periods.stream()
+                .map(period -> period.getStart() + "/" + period.getEnd())
+                .collect(Collectors.toList());
+    }
+}
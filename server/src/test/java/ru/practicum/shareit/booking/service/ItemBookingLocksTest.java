@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.exception.AlreadyExistException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemBookingLocksTest {
+
+    private final ItemBookingLocks locks = new ItemBookingLocks(Duration.ofMillis(100));
+
+    @BeforeEach
+    void beforeEach() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void afterEach() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void shouldGiveUpWaitingForBusyItemAndReleaseTakenStripes() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockUntilTransactionEnds(2L);
+                locked.countDown();
+                release.await();
+                complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        assertThat(locked.await(5, TimeUnit.SECONDS), is(true));
+
+        long start = System.nanoTime();
+        assertThrows(AlreadyExistException.class, () -> locks.lockAllUntilTransactionEnds(List.of(1L, 2L)));
+        assertThat(System.nanoTime() - start, lessThan(TimeUnit.SECONDS.toNanos(5)));
+        assertThat(TransactionSynchronizationManager.getSynchronizations(), empty());
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        // полоса вещи 1, взятая до неудачи, отпущена, а вещь 2 освободилась с концом чужой транзакции
+        CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockAllUntilTransactionEnds(List.of(1L, 2L));
+                complete();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRequireTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilTransactionEnds(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                TransactionSynchronization.STATUS_COMMITTED);
+    }
+}
@@ -7,18 +7,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoDated;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -56,7 +62,7 @@ class ItemControllerTest {
                 LocalDateTime.now().plusDays(1), 2L, BookingStatus.APPROVED);
         commentDto = new CommentDtoOut(1L, "Коммент 1", itemDto, "Иван Иванович", LocalDateTime.now());
         itemDtoDated = new ItemDtoDated(1L, "Вещь 1", "Описание вещи 1", true, bookingLast,
-                bookingNext, List.of(commentDto));
+                bookingNext, List.of(commentDto), 1L);
     }
 
     @Test
@@ -80,6 +86,42 @@ class ItemControllerTest {
                 .createItem(anyLong(), any());
     }
 
+    @Test
+    void shouldSaveItemsInBatch() throws Exception {
+        when(itemService.createItems(anyLong(), any()))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+
+        verify(itemService, times(1))
+                .createItems(eq(1L), argThat(items -> items.size() == 1));
+    }
+
+    @Test
+    void shouldImportItems() throws Exception {
+        when(itemService.importItems(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    Stream<String> lines = invocation.getArgument(1);
+                    return new ItemImportReportDto((int) lines.count(), 0, List.of());
+                });
+
+        mvc.perform(post("/items/import")
+                        .content("{\"name\": \"Вещь 1\"}\n{\"name\": \"Вещь 2\"}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.errors", hasSize(0)));
+    }
+
     @Test
     void shouldUpdateItem() throws Exception {
         when(itemService.updateItem(anyLong(), any(), anyLong()))
@@ -115,6 +157,26 @@ class ItemControllerTest {
                 .getItemById(anyLong(), anyLong());
     }
 
+    @Test
+    void shouldReturnEtagAndNotModifiedForItem() throws Exception {
+        when(itemService.getItemById(anyLong(), anyLong()))
+                .thenReturn(itemDtoDated);
+
+        String etag = mvc.perform(get("/items/1")
+                        .header(USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1")
+                        .header(USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void shouldGetUserItemsWithNoParams() throws Exception {
         List<ItemDtoDated> itemList = List.of(itemDtoDated);
@@ -162,7 +224,7 @@ class ItemControllerTest {
         int size = 2;
         String text = "вещ";
         List<ItemDto> itemList = List.of(itemDto);
-        when(itemService.search(text, from, size))
+        when(itemService.search(text, SearchMode.FULLTEXT, from, size))
                 .thenReturn(itemList);
         mvc.perform(get("/items/search")
                         .header(USER_ID, 1L)
@@ -173,7 +235,100 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(itemList)));
 
         verify(itemService, times(1))
-                .search(text, from, size);
+                .search(text, SearchMode.FULLTEXT, from, size);
+    }
+
+    @Test
+    void shouldSearchInRequestedMode() throws Exception {
+        when(itemService.search("дрел", SearchMode.TRIGRAM, 0, 20))
+                .thenReturn(List.of(itemDto));
+        mvc.perform(get("/items/search")
+                        .header(USER_ID, 1L)
+                        .param("text", "дрел")
+                        .param("mode", "trigram"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
+    }
+
+    @Test
+    void shouldNotSearchInUnknownMode() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header(USER_ID, 1L)
+                        .param("text", "дрел")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).search(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldSuggest() throws Exception {
+        when(itemService.suggest("дре", 5))
+                .thenReturn(List.of("дрель", "дрезина"));
+        mvc.perform(get("/items/suggest")
+                        .header(USER_ID, 1L)
+                        .param("prefix", "дре")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of("дрель", "дрезина"))));
+    }
+
+    @Test
+    void shouldGetCommentsAfterCursor() throws Exception {
+        when(itemService.getComments(anyLong(), any(), anyInt()))
+                .thenReturn(List.of(commentDto));
+        mvc.perform(get("/items/1/comments")
+                        .header(USER_ID, 1L)
+                        .param("after", "2023-03-01T10:15:30.123456,15")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(commentDto.getId()), Long.class));
+
+        verify(itemService, times(1))
+                .getComments(eq(1L), argThat(cursor -> cursor.getId() == 15L
+                        && cursor.getCreated().equals(LocalDateTime.of(2023, 3, 1, 10, 15, 30, 123456000))), eq(5));
+    }
+
+    @Test
+    void shouldGetFirstCommentsPageWithoutCursor() throws Exception {
+        when(itemService.getComments(anyLong(), any(), anyInt()))
+                .thenReturn(List.of(commentDto));
+        mvc.perform(get("/items/1/comments")
+                        .header(USER_ID, 1L))
+                .andExpect(status().isOk());
+
+        verify(itemService, times(1))
+                .getComments(eq(1L), isNull(), eq(20));
+    }
+
+    @Test
+    void shouldNotGetCommentsWithBadCursor() throws Exception {
+        mvc.perform(get("/items/1/comments")
+                        .header(USER_ID, 1L)
+                        .param("after", "вчера,15"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never())
+                .getComments(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void shouldGetAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemService.getAvailability(anyLong(), any(), any()))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to, List.of(new PeriodDto(from, from.plusDays(1))),
+                        List.of(new PeriodDto(from.plusDays(1), to))));
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-11T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.free[0].end", is("2030-01-11T00:00:00")));
+
+        verify(itemService, times(1))
+                .getAvailability(1L, from, to);
     }
 
     @Test
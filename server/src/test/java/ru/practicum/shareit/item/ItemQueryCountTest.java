@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDtoIn;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoDated;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// число SQL-запросов не должно зависеть от количества вещей и отзывов
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(scripts = "classpath:data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ItemQueryCountTest {
+
+    private static final int ITEMS = 3;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ItemService itemService;
+
+    private final UserService userService;
+
+    private final BookingService bookingService;
+
+    private final ItemBookingCalendar bookingCalendar;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        // data.sql очищает таблицы в обход событий
+        bookingCalendar.invalidateAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userService.createUser(new UserDto(1L, "Иван Иванович", "ii@mail.ru"));
+        userService.createUser(new UserDto(2L, "Петр Петрович", "pp@mail.ru"));
+        userService.createUser(new UserDto(3L, "Сидор Сидорович", "ss@mail.ru"));
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            itemService.createItem(1L, new ItemDto(itemId, "Вещь " + itemId, "Описание вещи " + itemId, true, null));
+            for (long authorId = 2; authorId <= 3; authorId++) {
+                LocalDateTime start = LocalDateTime.now().minusDays(2 * authorId);
+                bookingService.saveBooking(authorId, new BookingDtoIn(null, start, start.plusDays(1), itemId),
+                        BookingStatus.APPROVED);
+                itemService.saveComment(authorId, itemId, new CommentDtoIn(null, "Отзыв " + authorId));
+            }
+        }
+        statistics.clear();
+    }
+
+    @Test
+    void shouldGetUserItemsWithConstantNumberOfQueries() {
+        List<ItemDtoDated> items = itemService.getUserItems(1L, 0, 20);
+
+        assertThat(items.size(), equalTo(ITEMS));
+        assertThat(items.get(0).getComments().get(0).getAuthorName(), equalTo("Сидор Сидорович"));
+        assertThat(items.get(0).getComments().get(0).getItem().getId(), equalTo(1L));
+        // пользователь, страница вещей, бронирования и отзывы с авторами
+        assertThat(statistics.getPrepareStatementCount(), equalTo(4L));
+    }
+
+    @Test
+    void shouldGetItemCardWithConstantNumberOfQueries() {
+        ItemDtoDated item = itemService.getItemById(1L, 1L);
+
+        assertThat(item.getComments().size(), equalTo(2));
+        // карточка вместе с бронированиями и отзывы с авторами
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldGetCommentsPageWithConstantNumberOfQueries() {
+        assertThat(itemService.getComments(1L, null, 20).size(), equalTo(2));
+        // вещь и страница отзывов
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
+}
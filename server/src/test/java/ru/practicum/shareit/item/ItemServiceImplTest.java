@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -14,8 +17,13 @@ import ru.practicum.shareit.item.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggester;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -40,6 +48,8 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     private CommentRepository commentRepository;
     private RequestRepository requestRepository;
+    private ItemSearchEngine searchEngine;
+    private ApplicationEventPublisher eventPublisher;
     private ItemServiceImpl service;
 
     private ItemDto itemDto;
@@ -64,8 +74,11 @@ class ItemServiceImplTest {
         bookingRepository = mock(BookingRepository.class);
         commentRepository = mock(CommentRepository.class);
         requestRepository = mock(RequestRepository.class);
+        searchEngine = mock(ItemSearchEngine.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
         service = new ItemServiceImpl(itemRepository, userRepository, bookingRepository,
-                commentRepository, requestRepository);
+                commentRepository, requestRepository, searchEngine, mock(ItemSuggester.class),
+                mock(ItemSearchCache.class), eventPublisher, mock(ItemBookingCalendar.class), new ObjectMapper());
     }
 
     @Test
@@ -90,6 +103,18 @@ class ItemServiceImplTest {
                 .findById(anyLong());
         verify(itemRepository, times(1))
                 .save(any());
+        verify(eventPublisher, times(1))
+                .publishEvent(any(ItemSavedEvent.class));
+    }
+
+    @Test
+    void shouldPublishEventOnDelete() {
+        service.deleteItem(1L);
+
+        verify(itemRepository, times(1))
+                .deleteById(1L);
+        verify(eventPublisher, times(1))
+                .publishEvent(any(ItemDeletedEvent.class));
     }
 
     @Test
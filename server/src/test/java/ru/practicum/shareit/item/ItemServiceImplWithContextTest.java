@@ -6,15 +6,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.calendar.ItemBookingCalendar;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadParameterException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDtoIn;
+import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoDated;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentCursor;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.item.search.ItemSearchCache;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -23,10 +33,15 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -41,6 +56,9 @@ public class ItemServiceImplWithContextTest {
 
     private final BookingService bookingService;
 
+    private final ItemSearchCache searchCache;
+    private final ItemBookingCalendar bookingCalendar;
+
     private ItemDto itemDto;
     private BookingDtoIn bookingLastDtoIn;
     private BookingDtoIn bookingNextDtoIn;
@@ -62,6 +80,9 @@ public class ItemServiceImplWithContextTest {
         comment = new CommentDtoIn(1L, "Коммент 1");
 
         userService.createUser(userDto);
+        // data.sql очищает базу в обход сервиса
+        searchCache.invalidateAll();
+        bookingCalendar.invalidateAll();
     }
 
     @Test
@@ -69,20 +90,114 @@ public class ItemServiceImplWithContextTest {
         itemService.createItem(userDto.getId(), itemDto);
         int from = 0;
         int size = 5;
-        String text = "ещ";
-        List<ItemDto> itemsList = itemService.search(text, from, size);
-        TypedQuery<Item> query = em.createQuery("select i from Item i " +
-                "where upper(i.name) like upper(concat('%', :text, '%')) " +
-                "or upper(i.description) like upper(concat('%', :text, '%')) " +
-                "and i.isAvailable = true ", Item.class);
-        List<Item> itemsFromDb = query.setParameter("text", text)
-                .getResultList();
+        String text = "вещи";
+        List<ItemDto> itemsList = itemService.search(text, SearchMode.FULLTEXT, from, size);
+        TypedQuery<Item> query = em.createQuery("select i from Item i where i.id = :id", Item.class);
+        Item itemFromDb = query.setParameter("id", itemDto.getId())
+                .getSingleResult();
+
+        assertThat(itemsList, hasSize(1));
+        assertThat(itemsList.get(0).getId(), equalTo(itemFromDb.getId()));
+        assertThat(itemsList.get(0).getName(), equalTo(itemFromDb.getName()));
+        assertThat(itemsList.get(0).getDescription(), equalTo(itemFromDb.getDescription()));
+        assertThat(itemsList.get(0).getAvailable(), equalTo(itemFromDb.getIsAvailable()));
+    }
+
+    @Test
+    void shouldNotSearchUnavailableItems() {
+        itemService.createItem(userDto.getId(), itemDto);
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Дрель", "Сломанная дрель", false, null));
+
+        List<ItemDto> itemsList = itemService.search("дрель", SearchMode.FULLTEXT, 0, 5);
+
+        assertThat(itemsList, empty());
+    }
+
+    @Test
+    void shouldSearchRankedByRelevance() {
+        itemService.createItem(userDto.getId(), new ItemDto(1L, "Отвёртка", "Подходит к дрели", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Дрель", "Ударная дрель с набором свёрл", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(3L, "Молоток", "Обычный молоток", true, null));
+
+        List<ItemDto> itemsList = itemService.search("дрель", SearchMode.FULLTEXT, 0, 5);
+
+        assertThat(itemsList, hasSize(2));
+        assertThat(itemsList.get(0).getName(), equalTo("Дрель"));
+        assertThat(itemsList.get(1).getName(), equalTo("Отвёртка"));
+    }
+
+    @Test
+    void shouldSearchWithPaging() {
+        for (long i = 1; i <= 3; i++) {
+            itemService.createItem(userDto.getId(), new ItemDto(i, "Дрель " + i, "Описание дрели " + i, true, null));
+        }
+
+        List<ItemDto> itemsList = itemService.search("дрель", SearchMode.FULLTEXT, 2, 2);
+
+        assertThat(itemsList, hasSize(1));
+        assertThat(itemsList.get(0).getName(), equalTo("Дрель 3"));
+    }
+
+    @Test
+    void shouldRefreshCachedSearchWhenItemChanges() {
+        itemService.createItem(userDto.getId(), new ItemDto(1L, "Дрель", "Ударная", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Палатка", "Двухместная", true, null));
+        itemService.search("дрель", SearchMode.FULLTEXT, 0, 5);
+        itemService.search("палатка", SearchMode.FULLTEXT, 0, 5);
 
-        assertThat(itemsList.size(), equalTo(itemsFromDb.size()));
-        assertThat(itemsList.get(0).getId(), equalTo(itemsFromDb.get(0).getId()));
-        assertThat(itemsList.get(0).getName(), equalTo(itemsFromDb.get(0).getName()));
-        assertThat(itemsList.get(0).getDescription(), equalTo(itemsFromDb.get(0).getDescription()));
-        assertThat(itemsList.get(0).getAvailable(), equalTo(itemsFromDb.get(0).getIsAvailable()));
+        assertThat(searchCache.size(), equalTo(2L));
+
+        itemService.updateItem(userDto.getId(), new ItemDto(null, null, null, false, null), 1L);
+
+        assertThat(searchCache.size(), equalTo(1L));
+        assertThat(itemService.search("дрель", SearchMode.FULLTEXT, 0, 5), empty());
+        assertThat(itemService.search("палатка", SearchMode.FULLTEXT, 0, 5), hasSize(1));
+    }
+
+    @Test
+    void shouldSearchByWordFragmentWithTrigrams() {
+        itemService.createItem(userDto.getId(), new ItemDto(1L, "Отвёртка", "Подходит к дрели", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Дрель", "Ударная", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(3L, "Молоток", "Обычный молоток", true, null));
+
+        assertThat(itemService.search("дре", SearchMode.FULLTEXT, 0, 5), empty());
+
+        List<ItemDto> itemsList = itemService.search("дре", SearchMode.TRIGRAM, 0, 5);
+
+        assertThat(itemsList, hasSize(2));
+        assertThat(itemsList.get(0).getName(), equalTo("Дрель"));
+        assertThat(itemsList.get(1).getName(), equalTo("Отвёртка"));
+    }
+
+    @Test
+    void shouldSearchByModelNumberWithTrigrams() {
+        itemService.createItem(userDto.getId(), new ItemDto(1L, "Перфоратор Makita HR2470", "С кейсом", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Перфоратор Bosch GBH 2-26", "Без кейса", true, null));
+
+        List<ItemDto> itemsList = itemService.search("hr247", SearchMode.TRIGRAM, 0, 5);
+
+        assertThat(itemsList, hasSize(1));
+        assertThat(itemsList.get(0).getName(), equalTo("Перфоратор Makita HR2470"));
+    }
+
+    @Test
+    void shouldSearchWithTyposWithTrigrams() {
+        itemService.createItem(userDto.getId(), new ItemDto(1L, "Перфоратор", "Мощный", true, null));
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Дрель", "Ударная", false, null));
+
+        List<ItemDto> itemsList = itemService.search("перфоратр", SearchMode.TRIGRAM, 0, 5);
+
+        assertThat(itemsList, hasSize(1));
+        assertThat(itemsList.get(0).getName(), equalTo("Перфоратор"));
+        assertThat(itemService.search("дрел", SearchMode.TRIGRAM, 0, 5), empty());
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsLiterallyWithTrigrams() {
+        itemService.createItem(userDto.getId(), itemDto);
+
+        assertThat(itemService.search("%", SearchMode.TRIGRAM, 0, 5), empty());
+        assertThat(itemService.search("_", SearchMode.TRIGRAM, 0, 5), empty());
     }
 
     @Test
@@ -91,7 +206,7 @@ public class ItemServiceImplWithContextTest {
         int from = 0;
         int size = 5;
         String text = "вещьстакойстрокойненайти";
-        List<ItemDto> itemsList = itemService.search(text, from, size);
+        List<ItemDto> itemsList = itemService.search(text, SearchMode.FULLTEXT, from, size);
 
         assertThat(itemsList, empty());
     }
@@ -169,6 +284,67 @@ public class ItemServiceImplWithContextTest {
         assertThat(methodItem.getNextBooking(), nullValue());
     }
 
+    @Test
+    void shouldGetItemCardWithLatestCommentsFirst() {
+        UserDto user2 = new UserDto(2L, "Петр Петрович", "pp@mail.ru");
+        userService.createUser(user2);
+        itemService.createItem(userDto.getId(), itemDto);
+        bookingService.saveBooking(user2.getId(), bookingLastDtoIn, BookingStatus.APPROVED);
+        itemService.saveComment(user2.getId(), itemDto.getId(), comment);
+        itemService.saveComment(user2.getId(), itemDto.getId(), new CommentDtoIn(null, "Коммент 2"));
+
+        ItemDtoDated card = itemService.getItemById(userDto.getId(), itemDto.getId());
+
+        assertThat(card.getComments().size(), equalTo(2));
+        assertThat(card.getComments().get(0).getText(), equalTo("Коммент 2"));
+        assertThat(card.getComments().get(0).getAuthorName(), equalTo(user2.getName()));
+        assertThat(card.getComments().get(0).getItem().getId(), equalTo(itemDto.getId()));
+        assertThat(card.getComments().get(0).getItem().getName(), equalTo(itemDto.getName()));
+        assertThat(card.getComments().get(1).getText(), equalTo(comment.getText()));
+        assertThat(card.getCommentsCount(), equalTo(2L));
+        assertThat(card.getLastBooking().getId(), equalTo(1L));
+        assertThat(card.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void shouldPageCommentsWithCursor() {
+        UserDto user2 = new UserDto(2L, "Петр Петрович", "pp@mail.ru");
+        userService.createUser(user2);
+        itemService.createItem(userDto.getId(), itemDto);
+        bookingService.saveBooking(user2.getId(), bookingLastDtoIn, BookingStatus.APPROVED);
+        for (int i = 1; i <= 5; i++) {
+            itemService.saveComment(user2.getId(), itemDto.getId(), new CommentDtoIn(null, "Коммент " + i));
+        }
+
+        List<String> texts = new ArrayList<>();
+        CommentCursor cursor = null;
+        List<CommentDtoOut> page;
+        do {
+            page = itemService.getComments(itemDto.getId(), cursor, 2);
+            page.forEach(c -> texts.add(c.getText()));
+            if (!page.isEmpty()) {
+                CommentDtoOut last = page.get(page.size() - 1);
+                cursor = new CommentCursor(last.getCreated(), last.getId());
+            }
+        } while (page.size() == 2);
+
+        assertThat(texts, contains("Коммент 5", "Коммент 4", "Коммент 3", "Коммент 2", "Коммент 1"));
+        assertThrows(NotFoundException.class, () -> itemService.getComments(99L, null, 2));
+    }
+
+    @Test
+    void shouldNotGetItemCardForUnknownUserOrItem() {
+        itemService.createItem(userDto.getId(), itemDto);
+
+        NotFoundException noUser = assertThrows(NotFoundException.class,
+                () -> itemService.getItemById(99L, itemDto.getId()));
+        NotFoundException noItem = assertThrows(NotFoundException.class,
+                () -> itemService.getItemById(userDto.getId(), 99L));
+
+        assertThat(noUser.getMessage(), equalTo("Пользователь с ID 99 не зарегистрирован"));
+        assertThat(noItem.getMessage(), equalTo("Предмета с ID 99 не зарегистрировано"));
+    }
+
     @Test
     void shouldGetUserItems() {
         long userId = 1L;
@@ -259,4 +435,148 @@ public class ItemServiceImplWithContextTest {
         assertThat(itemsList.get(0).getNextBooking().getStatus(), equalTo(BookingStatus.APPROVED));
         assertThat(itemsList.get(0).getNextBooking().getBookerId(), equalTo(user2.getId()));
     }
+
+    @Test
+    void shouldGetLatestCommentsOfEveryUserItemOnly() {
+        UserDto user2 = new UserDto(2L, "Петр Петрович", "pp@mail.ru");
+        userService.createUser(user2);
+        itemService.createItem(userDto.getId(), itemDto);
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Вещь 2", "Описание вещи 2", true, null));
+        // вещь другого владельца: её отзывы не должны попасть в список
+        itemService.createItem(user2.getId(), new ItemDto(3L, "Вещь 3", "Описание вещи 3", true, null));
+        saveBooking(user2.getId(), 1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                BookingStatus.APPROVED);
+        saveBooking(userDto.getId(), 3L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                BookingStatus.APPROVED);
+        for (int i = 1; i <= 22; i++) {
+            itemService.saveComment(user2.getId(), 1L, new CommentDtoIn(null, "Коммент " + i));
+        }
+        itemService.saveComment(userDto.getId(), 3L, new CommentDtoIn(null, "Чужой коммент"));
+
+        List<ItemDtoDated> itemsList = itemService.getUserItems(userDto.getId(), 0, 5);
+
+        assertThat(itemsList.size(), equalTo(2));
+        assertThat(itemsList.get(0).getComments().size(), equalTo(20));
+        assertThat(itemsList.get(0).getCommentsCount(), equalTo(22L));
+        assertThat(itemsList.get(0).getComments().get(0).getText(), equalTo("Коммент 22"));
+        assertThat(itemsList.get(0).getComments().get(0).getAuthorName(), equalTo(user2.getName()));
+        assertThat(itemsList.get(0).getComments().get(0).getItem().getId(), equalTo(1L));
+        assertThat(itemsList.get(0).getComments().get(19).getText(), equalTo("Коммент 3"));
+        assertThat(itemsList.get(1).getComments(), empty());
+        assertThat(itemsList.get(1).getCommentsCount(), equalTo(0L));
+    }
+
+    @Test
+    void shouldGetClosestApprovedBookingsForEveryUserItem() {
+        UserDto user2 = new UserDto(2L, "Петр Петрович", "pp@mail.ru");
+        userService.createUser(user2);
+        itemService.createItem(userDto.getId(), itemDto);
+        itemService.createItem(userDto.getId(), new ItemDto(2L, "Вещь 2", "Описание вещи 2", true, null));
+        LocalDateTime now = LocalDateTime.now();
+        // вещь 1: ближайшие бронирования по обе стороны от текущего момента не подтверждены
+        saveBooking(user2.getId(), 1L, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        saveBooking(user2.getId(), 1L, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(user2.getId(), 1L, now.minusDays(1), now.minusHours(20), BookingStatus.REJECTED);
+        saveBooking(user2.getId(), 1L, now.plusHours(1), now.plusHours(2), BookingStatus.WAITING);
+        saveBooking(user2.getId(), 1L, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        saveBooking(user2.getId(), 1L, now.plusDays(4), now.plusDays(5), BookingStatus.APPROVED);
+        // вещь 2: только прошедшее бронирование
+        saveBooking(user2.getId(), 2L, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+
+        List<ItemDtoDated> itemsList = itemService.getUserItems(userDto.getId(), 0, 5);
+
+        assertThat(itemsList.size(), equalTo(2));
+        assertThat(itemsList.get(0).getLastBooking().getId(), equalTo(2L));
+        assertThat(itemsList.get(0).getLastBooking().getBookerId(), equalTo(user2.getId()));
+        assertThat(itemsList.get(0).getLastBooking().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(itemsList.get(0).getNextBooking().getId(), equalTo(5L));
+        assertThat(itemsList.get(1).getLastBooking().getId(), equalTo(7L));
+        assertThat(itemsList.get(1).getNextBooking(), nullValue());
+    }
+
+    @Test
+    void shouldGetItemAvailabilityAfterBookingChanges() {
+        userService.createUser(new UserDto(2L, "Петр Петрович", "pp@mail.ru"));
+        itemService.createItem(userDto.getId(), itemDto);
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        // календарь вещи загружается до бронирований и дальше обновляется ими
+        assertThat(itemService.getAvailability(1L, from, to).getFree().size(), equalTo(1));
+
+        saveBooking(2L, 1L, from.plusDays(1), from.plusDays(2), BookingStatus.WAITING);
+        saveBooking(2L, 1L, from.plusDays(4), from.plusDays(5), BookingStatus.WAITING);
+        bookingService.bookingApprove(userDto.getId(), 2L, false);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(1L, from, to);
+
+        assertThat(availability.getBusy().size(), equalTo(1));
+        assertThat(availability.getBusy().get(0).getStart(), equalTo(from.plusDays(1)));
+        assertThat(availability.getBusy().get(0).getEnd(), equalTo(from.plusDays(2)));
+        assertThat(availability.getFree().size(), equalTo(2));
+        assertThat(availability.getFree().get(1).getEnd(), equalTo(to));
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(2L, from, to));
+        assertThrows(BadParameterException.class, () -> itemService.getAvailability(1L, to, from));
+    }
+
+    @Test
+    void shouldImportItemsWithPerLineReport() {
+        Stream<String> lines = Stream.of(
+                "{\"name\": \"Дрель\", \"description\": \"Ударная, \\\"Bosch\\\"\", \"available\": true}",
+                "{\"name\": \"Пила\"",
+                "",
+                "{\"name\": \" \", \"description\": \"Без названия\", \"available\": true}",
+                "{\"name\": \"Лестница\", \"description\": \"Три метра\", \"available\": true, \"requestId\": 99}",
+                "{\"id\": 50, \"name\": \"Палатка\", \"description\": \"Двухместная\", \"available\": false}");
+
+        ItemImportReportDto report = itemService.importItems(userDto.getId(), lines);
+
+        assertThat(report.getImported(), equalTo(2));
+        assertThat(report.getFailed(), equalTo(3));
+        assertThat(report.getErrors().stream().map(ItemImportErrorDto::getLine).collect(Collectors.toList()),
+                contains(2L, 4L, 5L));
+        assertThat(report.getErrors().get(2).getError(), equalTo("Запроса с ID 99 нет в базе"));
+        List<ItemDtoDated> items = itemService.getUserItems(userDto.getId(), 0, 10);
+        assertThat(items.stream().map(ItemDtoDated::getDescription).collect(Collectors.toList()),
+                contains("Ударная, \"Bosch\"", "Двухместная"));
+        // поиск узнаёт о вещах из событий, а id из последовательности не пересекаются с новыми вещами
+        assertThat(itemService.search("дрель", SearchMode.FULLTEXT, 0, 10).size(), equalTo(1));
+        ItemDto created = itemService.createItem(userDto.getId(),
+                new ItemDto(null, "Пила", "Ножовка", true, null));
+        assertThat(created.getId(), not(in(items.stream().map(ItemDtoDated::getId).collect(Collectors.toList()))));
+    }
+
+    @Test
+    void shouldImportItemsInSeveralBatches() {
+        Stream<String> lines = IntStream.rangeClosed(1, 1200)
+                .mapToObj(i -> "{\"name\": \"Вещь " + i + "\", \"description\": \"Описание\", \"available\": true}");
+
+        ItemImportReportDto report = itemService.importItems(userDto.getId(), lines);
+
+        assertThat(report.getImported(), equalTo(1200));
+        assertThat(report.getErrors(), empty());
+        assertThat(em.createQuery("select count(i) from Item i", Long.class).getSingleResult(), equalTo(1200L));
+        assertThrows(NotFoundException.class, () -> itemService.importItems(99L, Stream.of()));
+    }
+
+    @Test
+    void shouldRejectNullAndNonObjectLinesOnImport() {
+        Stream<String> lines = Stream.of(
+                "null",
+                "[1, 2]",
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}",
+                "\"Пила\"");
+
+        ItemImportReportDto report = itemService.importItems(userDto.getId(), lines);
+
+        assertThat(report.getImported(), equalTo(1));
+        assertThat(report.getFailed(), equalTo(3));
+        assertThat(report.getErrors().stream().map(ItemImportErrorDto::getLine).collect(Collectors.toList()),
+                contains(1L, 2L, 4L));
+        assertThat(report.getErrors().get(0).getError(), equalTo("Ожидался JSON-объект"));
+    }
+
+    private void saveBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end,
+                             BookingStatus status) {
+        bookingService.saveBooking(bookerId, new BookingDtoIn(null, start, end, itemId), status);
+    }
 }
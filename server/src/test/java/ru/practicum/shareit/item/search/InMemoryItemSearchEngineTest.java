@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTest {
+
+    private ItemRepository itemRepository;
+    private InMemoryItemSearchEngine engine;
+    private User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        engine = new InMemoryItemSearchEngine(itemRepository);
+        owner = new User(1L, "Иван Иванович", "ii@mail.ru");
+    }
+
+    @Test
+    void shouldBuildIndexInBatches() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(1L, "Дрель", "Ударная", true)),
+                        PageRequest.of(0, 1000), 1001))
+                .thenReturn(new PageImpl<>(List.of(item(2L, "Отвёртка", "Крестовая", true)),
+                        PageRequest.of(1, 1000), 1001));
+
+        engine.rebuild();
+
+        assertThat(engine.isReady(), is(true));
+        assertThat(engine.size(), equalTo(2));
+        assertThat(names(engine.search("отвертка", SearchMode.FULLTEXT, 0, 10)), contains("Отвёртка"));
+        verify(itemRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void shouldSearchInDatabaseUntilIndexIsBuilt() {
+        when(itemRepository.searchAvailable(anyString(), any()))
+                .thenReturn(List.of(item(1L, "Дрель", "Ударная", true)));
+
+        List<ItemDto> found = engine.search("дрель", SearchMode.FULLTEXT, 0, 10);
+
+        assertThat(names(found), contains("Дрель"));
+        verify(itemRepository, times(1)).searchAvailable(anyString(), any());
+    }
+
+    @Test
+    void shouldSearchByTrigramsInDatabase() {
+        buildEmpty();
+
+        engine.search("дре", SearchMode.TRIGRAM, 0, 10);
+
+        verify(itemRepository, times(1)).searchAvailableBySimilarity(anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldRankNameMatchesFirst() {
+        buildEmpty();
+        save(1L, "Отвёртка", "Подходит к дрели", true);
+        save(2L, "Дрель", "Ударная дрель с набором свёрл", true);
+        save(3L, "Молоток", "Обычный молоток", true);
+
+        assertThat(names(engine.search("дрел", SearchMode.FULLTEXT, 0, 10)), contains("Дрель", "Отвёртка"));
+        verify(itemRepository, never()).searchAvailable(anyString(), any());
+    }
+
+    @Test
+    void shouldRequireEveryWord() {
+        buildEmpty();
+        save(1L, "Дрель ударная", "Bosch", true);
+        save(2L, "Дрель", "Makita", true);
+
+        assertThat(names(engine.search("дрель makita", SearchMode.FULLTEXT, 0, 10)), contains("Дрель"));
+    }
+
+    @Test
+    void shouldFilterUnavailableItems() {
+        buildEmpty();
+        save(1L, "Дрель", "Сломанная", false);
+
+        assertThat(engine.search("дрель", SearchMode.FULLTEXT, 0, 10), empty());
+
+        save(1L, "Дрель", "Починенная", true);
+
+        assertThat(names(engine.search("дрель", SearchMode.FULLTEXT, 0, 10)), contains("Дрель"));
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        buildEmpty();
+        save(1L, "Дрель", "Ударная", true);
+
+        save(1L, "Перфоратор", "Ударный", true);
+
+        assertThat(engine.search("дрель", SearchMode.FULLTEXT, 0, 10), empty());
+        assertThat(names(engine.search("перфоратор", SearchMode.FULLTEXT, 0, 10)), contains("Перфоратор"));
+        assertThat(engine.size(), equalTo(1));
+    }
+
+    @Test
+    void shouldRemoveDeletedItemsAndItemsOfDeletedUsers() {
+        buildEmpty();
+        save(1L, "Дрель 1", "Ударная", true);
+        save(2L, "Дрель 2", "Ударная", true);
+        engine.onItemSaved(new ItemSavedEvent(2L, new ItemDto(3L, "Дрель 3", "Ударная", true, null)));
+
+        engine.onItemDeleted(new ItemDeletedEvent(1L));
+        engine.onUserDeleted(new UserDeletedEvent(2L));
+
+        assertThat(names(engine.search("дрель", SearchMode.FULLTEXT, 0, 10)), contains("Дрель 2"));
+        assertThat(engine.size(), equalTo(1));
+    }
+
+    @Test
+    void shouldIndexSparseAndLargeIdsAndReuseFreedDocuments() {
+        buildEmpty();
+        long big = Integer.MAX_VALUE + 10L;
+        save(big, "Дрель большая", "Ударная", true);
+        save(big + 50, "Дрель", "Ударная", true);
+        save(7L, "Дрель малая", "Аккумуляторная", true);
+
+        engine.onItemDeleted(new ItemDeletedEvent(big));
+        save(big + 100, "Дрель новая", "Ударная", true);
+
+        assertThat(engine.size(), equalTo(3));
+        // при равной релевантности — по ID вещи
+        assertThat(names(engine.search("дрель", SearchMode.FULLTEXT, 0, 10)),
+                contains("Дрель малая", "Дрель", "Дрель новая"));
+    }
+
+    @Test
+    void shouldSearchWithPaging() {
+        buildEmpty();
+        for (long i = 1; i <= 3; i++) {
+            save(i, "Дрель " + i, "Описание дрели " + i, true);
+        }
+
+        assertThat(names(engine.search("дрель", SearchMode.FULLTEXT, 2, 2)), contains("Дрель 3"));
+        assertThat(engine.search("дрель", SearchMode.FULLTEXT, 4, 2), empty());
+    }
+
+    @Test
+    void shouldNotSearchByBlankText() {
+        buildEmpty();
+        save(1L, "Дрель", "Ударная", true);
+
+        assertThat(engine.search(" ,. ", SearchMode.FULLTEXT, 0, 10), empty());
+    }
+
+    private void buildEmpty() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+        engine.rebuild();
+    }
+
+    private void save(long id, String name, String description, boolean available) {
+        engine.onItemSaved(new ItemSavedEvent(owner.getId(), new ItemDto(id, name, description, available, null)));
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, owner, null);
+    }
+
+    private static List<String> names(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getName)
+                .collect(Collectors.toList());
+    }
+}
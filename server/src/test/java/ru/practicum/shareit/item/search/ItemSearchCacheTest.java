@@ -0,0 +1,183 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchCacheTest {
+
+    private final ItemDto drill = new ItemDto(1L, "Дрель", "Ударная", true, null);
+    private final ItemDto tent = new ItemDto(2L, "Палатка", "Двухместная", true, null);
+
+    private SearchCacheProperties properties;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void beforeEach() {
+        properties = new SearchCacheProperties();
+        cache = new ItemSearchCache(properties);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldLoadOnceForSameNormalizedQuery() {
+        search("дрель", 0, 10, drill);
+        List<ItemDto> cached = search("  Дрель ", 0, 10, drill);
+
+        assertThat(loads.get(), equalTo(1));
+        assertThat(cached, contains(drill));
+    }
+
+    @Test
+    void shouldCacheModesAndPagesSeparately() {
+        search("дрель", 0, 10, drill);
+        search("дрель", 10, 10);
+        cache.get("дрель", SearchMode.TRIGRAM, 0, 10, () -> load(List.of(drill)));
+        search("дрель", 5, 10, drill);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void shouldEvictOnlyQueriesSharingTrigramsWithSavedItem() {
+        search("дрели", 0, 10);
+        search("палатка", 0, 10, tent);
+
+        cache.onItemSaved(new ItemSavedEvent(1L, drill));
+
+        assertThat(cache.size(), equalTo(1L));
+        search("палатка", 0, 10, tent);
+        search("дрели", 0, 10, drill);
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void shouldEvictQueriesWhoseResultsContainChangedItem() {
+        search("палатка", 0, 10, tent);
+
+        cache.onItemSaved(new ItemSavedEvent(1L, new ItemDto(2L, "Тент", "Навес", true, null)));
+
+        assertThat(cache.size(), equalTo(0L));
+    }
+
+    @Test
+    void shouldEvictQueriesWithShortWordsOnAnyChange() {
+        search("hr 2470", 0, 10);
+        search("палатка", 0, 10, tent);
+
+        cache.onItemSaved(new ItemSavedEvent(1L, drill));
+
+        assertThat(cache.size(), equalTo(1L));
+    }
+
+    @Test
+    void shouldEvictDeletedItemAndEverythingOnUserDeletion() {
+        search("дрель", 0, 10, drill);
+        search("палатка", 0, 10, tent);
+
+        cache.onItemDeleted(new ItemDeletedEvent(1L));
+
+        assertThat(cache.size(), equalTo(1L));
+
+        cache.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(cache.size(), equalTo(0L));
+    }
+
+    @Test
+    void shouldNotCacheResultLoadedDuringInvalidation() {
+        cache.get("дрель", SearchMode.FULLTEXT, 0, 10, () -> {
+            // вещь изменилась, пока шёл запрос к базе
+            cache.onItemSaved(new ItemSavedEvent(1L, drill));
+            return load(List.of());
+        });
+
+        assertThat(cache.size(), equalTo(0L));
+    }
+
+    @Test
+    void shouldBypassWhenDisabled() {
+        properties.setEnabled(false);
+        cache = new ItemSearchCache(properties);
+
+        search("дрель", 0, 10, drill);
+        search("дрель", 0, 10, drill);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldBoundCacheByResultSize() {
+        properties.setMaxSize(DataSize.ofBytes(1000));
+        cache = new ItemSearchCache(properties);
+        ItemDto big = new ItemDto(3L, "Шатёр", "ш".repeat(450), true, null);
+
+        search("шатёр", 0, 10, big);
+        search("дрель", 0, 10, drill);
+
+        assertThat(cache.size(), equalTo(1L));
+    }
+
+    @Test
+    void shouldExposeMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        search("дрель", 0, 10, drill);
+        search("дрель", 0, 10, drill);
+        cache.onItemSaved(new ItemSavedEvent(1L, drill));
+
+        assertThat(registry.get("cache.gets").tag("cache", "items.search").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(registry.get("cache.gets").tag("cache", "items.search").tag("result", "miss")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(registry.get("cache.invalidations").tag("cache", "items.search")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(registry.find("cache.evictions").tag("cache", "items.search").functionCounter(), notNullValue());
+    }
+
+    @Test
+    void shouldInvalidateAfterIndexAndSuggesterListeners() {
+        for (String listener : List.of("onItemSaved", "onItemDeleted", "onUserDeleted")) {
+            int cacheOrder = order(ItemSearchCache.class, listener);
+
+            assertThat(order(InMemoryItemSearchEngine.class, listener), lessThan(cacheOrder));
+            assertThat(order(ItemSuggester.class, listener), lessThan(cacheOrder));
+        }
+    }
+
+    private List<ItemDto> search(String text, int from, int size, ItemDto... found) {
+        return cache.get(text, SearchMode.FULLTEXT, from, size, () -> load(List.of(found)));
+    }
+
+    private List<ItemDto> load(List<ItemDto> items) {
+        loads.incrementAndGet();
+        return items;
+    }
+
+    private static int order(Class<?> type, String listener) {
+        Method method = Arrays.stream(type.getMethods())
+                .filter(m -> m.getName().equals(listener))
+                .findFirst()
+                .orElseThrow();
+        Integer order = OrderUtils.getOrder(method);
+        return order == null ? Ordered.LOWEST_PRECEDENCE : order;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDeletedEvent;
+import ru.practicum.shareit.item.model.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserDeletedEvent;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSuggesterTest {
+
+    private ItemRepository itemRepository;
+    private ItemSuggester suggester;
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        suggester = new ItemSuggester(itemRepository);
+    }
+
+    @Test
+    void shouldBuildFromRepository() {
+        User owner = new User(1L, "Иван Иванович", "ii@mail.ru");
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(
+                        new Item(1L, "Дрель ударная", "Описание", true, owner, null),
+                        new Item(2L, "Дрель", "Сломана", false, owner, null))));
+
+        suggester.rebuild();
+
+        assertThat(suggester.suggest("др", 10), contains("дрель"));
+        assertThat(suggester.suggest("уд", 10), contains("ударная"));
+        assertThat(suggester.size(), equalTo(2));
+    }
+
+    @Test
+    void shouldSuggestMostPopularFirst() {
+        save(1L, 1L, "Дрель", true);
+        save(2L, 1L, "Дрель ударная", true);
+        save(3L, 1L, "Дрезина", true);
+        save(4L, 1L, "Древний топор", true);
+        save(5L, 1L, "Дрель Makita", true);
+
+        assertThat(suggester.suggest("Дре", 10), contains("дрель", "древний", "дрезина"));
+        assertThat(suggester.suggest("дре", 1), contains("дрель"));
+        assertThat(suggester.suggest("дрель уд", 10), contains("ударная"));
+        assertThat(suggester.suggest("молоток", 10), empty());
+        assertThat(suggester.suggest(" ", 10), empty());
+    }
+
+    @Test
+    void shouldSuggestWordAndItsLongerCompletions() {
+        save(1L, 1L, "Пила", true);
+        save(2L, 1L, "Пилка", true);
+        save(3L, 1L, "Пилка для ногтей", true);
+
+        assertThat(suggester.suggest("пил", 10), contains("пилка", "пила"));
+        assertThat(suggester.suggest("пила", 10), contains("пила"));
+    }
+
+    @Test
+    void shouldUpdateWhenItemRenamedOrHidden() {
+        save(1L, 1L, "Дрель", true);
+
+        save(1L, 1L, "Перфоратор", true);
+
+        assertThat(suggester.suggest("д", 10), empty());
+        assertThat(suggester.suggest("п", 10), contains("перфоратор"));
+
+        save(1L, 1L, "Перфоратор", false);
+
+        assertThat(suggester.suggest("п", 10), empty());
+        assertThat(suggester.size(), equalTo(0));
+    }
+
+    @Test
+    void shouldForgetDeletedItemsAndItemsOfDeletedUsers() {
+        save(1L, 1L, "Дрель", true);
+        save(2L, 2L, "Дрель", true);
+        save(3L, 2L, "Дрезина", true);
+
+        suggester.onItemDeleted(new ItemDeletedEvent(1L));
+        suggester.onUserDeleted(new UserDeletedEvent(2L));
+
+        assertThat(suggester.suggest("д", 10), empty());
+        assertThat(suggester.size(), equalTo(0));
+    }
+
+    @Test
+    void shouldKeepWordWhileAnotherItemHasIt() {
+        save(1L, 1L, "Дрель", true);
+        save(2L, 1L, "Дрель", true);
+
+        suggester.onItemDeleted(new ItemDeletedEvent(1L));
+
+        assertThat(suggester.suggest("д", 10), contains("дрель"));
+    }
+
+    private void save(long itemId, long ownerId, String name, boolean available) {
+        suggester.onItemSaved(new ItemSavedEvent(ownerId, new ItemDto(itemId, name, "Описание", available, null)));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.request.dto.RequestDtoOut;
@@ -85,6 +86,27 @@ class RequestControllerTest {
                 .getUserItemRequests(anyLong());
     }
 
+    @Test
+    void shouldReturnNewEtagWhenItemRequestsChange() throws Exception {
+        when(requestService.getUserItemRequests(anyLong()))
+                .thenReturn(List.of(requestDto));
+        String etag = mvc.perform(get("/requests")
+                        .header(USER_ID, 1))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        when(requestService.getUserItemRequests(anyLong()))
+                .thenReturn(List.of());
+        mvc.perform(get("/requests")
+                        .header(USER_ID, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.*", hasSize(0)));
+    }
+
     @Test
     void shouldGetItemRequestsFromOtherUsers() throws Exception {
         int from = 0;
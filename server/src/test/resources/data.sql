@@ -1,6 +1,7 @@
 DELETE FROM users;
-ALTER TABLE users ALTER COLUMN id restart WITH 1;
-ALTER TABLE items ALTER COLUMN id restart WITH 1;
-ALTER TABLE bookings ALTER COLUMN id restart WITH 1;
-ALTER TABLE comments ALTER COLUMN id restart WITH 1;
-ALTER TABLE requests ALTER COLUMN id restart WITH 1;
\ No newline at end of file
+-- в тестах id выдаются по одному (shareit.id.increment_size=1), чтобы после очистки снова начинаться с 1
+ALTER TABLE users ALTER COLUMN id SET INCREMENT BY 1 RESTART WITH 1;
+ALTER TABLE items ALTER COLUMN id SET INCREMENT BY 1 RESTART WITH 1;
+ALTER TABLE bookings ALTER COLUMN id SET INCREMENT BY 1 RESTART WITH 1;
+ALTER TABLE comments ALTER COLUMN id SET INCREMENT BY 1 RESTART WITH 1;
+ALTER TABLE requests ALTER COLUMN id SET INCREMENT BY 1 RESTART WITH 1;